@@ -1,6 +1,12 @@
 package app;
 
 import app.analytics.monetization.ArtistRevenue;
+import app.analytics.GenreProfiles;
+import app.analytics.Leaderboards;
+import app.analytics.statistics.StatisticsLedger;
+import app.audio.AudioCatalog;
+import app.audio.CatalogView;
+import app.audio.Library;
 import app.audio.Collections.Album;
 import app.audio.Collections.AudioCollection;
 import app.audio.Collections.Playlist;
@@ -8,24 +14,27 @@ import app.audio.Collections.Podcast;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Episode;
 import app.audio.Files.Song;
+import app.audio.Files.SongSymbols;
 import app.audio.LibraryEntry;
 import app.notifications.Notification;
 import app.pages.ArtistPage;
 import app.pages.HomePage;
 import app.pages.LikedContentPage;
+import app.player.NowPlayingIndex;
+import app.player.PendingListens;
+import app.player.PlaybackScheduler;
 import app.player.Player;
 import app.pages.pageContent.Announcement;
 import app.recommendations.*;
+import app.searchBar.SearchIndex;
+import app.searchBar.SearchStrategyFactory;
 import app.user.*;
 import app.pages.pageContent.Event;
 import app.pages.pageContent.Merchandise;
 import app.utils.Constants;
-import fileio.input.LibraryInput;
 import fileio.input.UserInput;
-import fileio.input.SongInput;
-import fileio.input.PodcastInput;
-import fileio.input.EpisodeInput;
 import fileio.input.CommandInput;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -37,110 +46,205 @@ import java.util.stream.Stream;
  * The type Admin.
  */
 public final class Admin {
+    private final UserRegistry accounts = new UserRegistry();
     @Getter
-    private List<User> users = new ArrayList<>();
+    private final NowPlayingIndex nowPlaying = new NowPlayingIndex();
     @Getter
-    private List<Artist> artists = new ArrayList<>();
+    private final PlaybackScheduler scheduler = new PlaybackScheduler();
     @Getter
-    private List<Host> hosts = new ArrayList<>();
+    private final PendingListens pendingListens = new PendingListens();
+    @Getter
+    private final AudioCatalog catalog = new AudioCatalog();
+    @Getter
+    private final StatisticsLedger statistics = new StatisticsLedger();
+    @Getter
+    private final SearchIndex searchIndex = new SearchIndex();
+    @Getter
+    private final SearchStrategyFactory searchStrategies = new SearchStrategyFactory(this);
+    @Getter
+    private final Leaderboards leaderboards = new Leaderboards();
+    @Getter
+    private final GenreProfiles genreProfiles = new GenreProfiles();
+    @Getter
+    private final SongSymbols songSymbols = new SongSymbols();
     private List<Song> songs = new ArrayList<>();
     private List<Podcast> podcasts = new ArrayList<>();
+    private final CatalogView<Song> songView = new CatalogView<>(() -> songs);
+    private final CatalogView<Podcast> podcastView = new CatalogView<>(() -> podcasts);
+    private final CatalogView<Playlist> playlistView = new CatalogView<>(() -> getUsers()
+            .stream().flatMap(user -> user.getPlaylists().stream()).toList());
+    private final CatalogView<Album> albumView = new CatalogView<>(() -> getArtists()
+            .stream().flatMap(artist -> artist.getAlbums().stream()).toList());
+    @Getter(AccessLevel.PACKAGE)
     private int timestamp = 0;
-    private static Admin instance;
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.PACKAGE)
+    private int notificationCount = 0;
+    private int nextAccountId = 0;
     @Getter @Setter
     private Map<String, ArtistRevenue> userInteractions = new HashMap<>();
 
-    private Admin() {
-    }
-
     /**
-     * Gets instance.
-     *
-     * @return the instance
+     * Instantiates a new, empty Admin. Every Admin holds its own state, so several
+     * sessions can run side by side, each against its own Admin.
      */
-    public static Admin getInstance() {
-        if (instance == null) {
-            instance = new Admin();
-        }
-        return instance;
+    public Admin() {
     }
 
     /**
-     * Sets entities.
+     * Sets entities. The podcasts of the library are shared, the songs are copied.
      *
      * @param library the database
      */
-    public void setEntities(final LibraryInput library) {
+    public void setEntities(final Library library) {
         setUsers(library.getUsers());
-        setSongs(library.getSongs());
+        setSongs(library.copySongs(songSymbols));
         setPodcasts(library.getPodcasts());
     }
 
     private void setUsers(final List<UserInput> userInputList) {
         for (UserInput userInput : userInputList) {
-            users.add(new User(userInput.getUsername(), userInput.getAge(), userInput.getCity()));
+            addAccount(new User(this, userInput.getUsername(), userInput.getAge(),
+                    userInput.getCity()));
         }
     }
 
-    private void setSongs(final List<SongInput> songInputList) {
-        for (SongInput songInput : songInputList) {
-            songs.add(new Song(songInput.getName(), songInput.getDuration(), songInput.getAlbum(),
-                    songInput.getTags(), songInput.getLyrics(), songInput.getGenre(),
-                    songInput.getReleaseYear(), songInput.getArtist()));
+    private void setSongs(final List<Song> songList) {
+        for (Song song : songList) {
+            songs.add(song);
+            searchIndex.addSong(song);
+            leaderboards.addSong(song);
         }
+        songView.invalidate();
     }
 
-    private void setPodcasts(final List<PodcastInput> podcastInputList) {
-        for (PodcastInput podcastInput : podcastInputList) {
-            List<Episode> episodes = new ArrayList<>();
-            for (EpisodeInput episodeInput : podcastInput.getEpisodes()) {
-                episodes.add(new Episode(episodeInput.getName(),
-                        episodeInput.getDuration(),
-                        episodeInput.getDescription(),
-                        podcastInput.getOwner()));
-            }
-            podcasts.add(new Podcast(podcastInput.getName(), podcastInput.getOwner(), episodes));
+    private void setPodcasts(final List<Podcast> podcastList) {
+        for (Podcast podcast : podcastList) {
+            podcasts.add(podcast);
+            searchIndex.addPodcast(podcast);
         }
+        podcastView.invalidate();
+    }
+
+    private void addAccount(final UserAbstract account) {
+        account.assignId(nextAccountId++);
+        accounts.add(account);
+        searchIndex.addAccount(account);
+        leaderboards.addAccount(account);
+    }
+
+    private void removeAccount(final UserAbstract account) {
+        accounts.remove(account);
+        searchIndex.removeAccount(account);
+        leaderboards.removeAccount(account);
+        genreProfiles.removeAccount(account);
+    }
+
+    /**
+     * Gets users.
+     *
+     * @return the users
+     */
+    public List<User> getUsers() {
+        return accounts.getUsers();
+    }
+
+    /**
+     * Gets artists.
+     *
+     * @return the artists
+     */
+    public List<Artist> getArtists() {
+        return accounts.getArtists();
+    }
+
+    /**
+     * Gets hosts.
+     *
+     * @return the hosts
+     */
+    public List<Host> getHosts() {
+        return accounts.getHosts();
     }
 
     /**
      * Gets songs.
      *
-     * @return the songs
+     * @return an unmodifiable snapshot of the songs
      */
     public List<Song> getSongs() {
-        return new ArrayList<>(songs);
+        return songView.get();
     }
 
     /**
      * Gets podcasts.
      *
-     * @return the podcasts
+     * @return an unmodifiable snapshot of the podcasts
      */
     public List<Podcast> getPodcasts() {
-        return new ArrayList<>(podcasts);
+        return podcastView.get();
     }
 
     /**
      * Gets playlists.
      *
-     * @return the playlists
+     * @return an unmodifiable snapshot of the playlists
      */
     public List<Playlist> getPlaylists() {
-        return users.stream()
-                .flatMap(user -> user.getPlaylists().stream())
-                .collect(Collectors.toList());
+        return playlistView.get();
     }
 
     /**
      * Gets albums.
      *
-     * @return the albums
+     * @return an unmodifiable snapshot of the albums
      */
     public List<Album> getAlbums() {
-        return artists.stream()
-                .flatMap(artist -> artist.getAlbums().stream())
-                .collect(Collectors.toList());
+        return albumView.get();
+    }
+
+    /**
+     * Puts back the catalogs and the accounts read from a snapshot. The accounts of each
+     * type are registered in sign-up order and their albums and playlists in creation
+     * order, which builds the search index back as it was.
+     *
+     * @param now         the timestamp of the snapshot
+     * @param songList    the songs, in library order
+     * @param podcastList the podcasts, in library order
+     * @param registered  the accounts, in sign-up order for each type
+     */
+    void restore(final int now, final List<Song> songList, final List<Podcast> podcastList,
+                 final List<UserAbstract> registered) {
+        timestamp = now;
+        registered.forEach(this::addAccount);
+        setSongs(songList);
+        setPodcasts(podcastList);
+        getArtists().forEach(artist -> artist.getAlbums().forEach(album -> {
+            searchIndex.addAlbum(album);
+            leaderboards.addAlbum(artist, album);
+        }));
+        getUsers().forEach(user -> user.getPlaylists().forEach(playlist -> {
+            searchIndex.addPlaylist(playlist);
+            leaderboards.addPlaylist(user, playlist);
+            genreProfiles.addPlaylist(user, playlist);
+        }));
+        getUsers().forEach(user -> {
+            user.getLikedSongs().forEach(song -> genreProfiles.like(user, song));
+            user.getFollowedPlaylists().forEach(playlist -> genreProfiles.follow(user, playlist));
+        });
+        playlistView.invalidate();
+        albumView.invalidate();
+    }
+
+    /**
+     * Registers a playlist a user just created.
+     *
+     * @param playlist the playlist
+     */
+    public void addPlaylist(final Playlist playlist) {
+        searchIndex.addPlaylist(playlist);
+        leaderboards.addPlaylist(getUser(playlist.getOwner()), playlist);
+        genreProfiles.addPlaylist(getUser(playlist.getOwner()), playlist);
+        playlistView.invalidate();
     }
 
     /**
@@ -151,9 +255,9 @@ public final class Admin {
     public List<String> getAllUsers() {
         List<String> allUsers = new ArrayList<>();
 
-        allUsers.addAll(users.stream().map(UserAbstract::getUsername).toList());
-        allUsers.addAll(artists.stream().map(UserAbstract::getUsername).toList());
-        allUsers.addAll(hosts.stream().map(UserAbstract::getUsername).toList());
+        allUsers.addAll(getUsers().stream().map(UserAbstract::getUsername).toList());
+        allUsers.addAll(getArtists().stream().map(UserAbstract::getUsername).toList());
+        allUsers.addAll(getHosts().stream().map(UserAbstract::getUsername).toList());
 
         return allUsers;
     }
@@ -165,10 +269,7 @@ public final class Admin {
      * @return the user
      */
     public User getUser(final String username) {
-        return users.stream()
-                .filter(user -> user.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.getUser(username);
     }
 
     /**
@@ -178,10 +279,7 @@ public final class Admin {
      * @return the artist
      */
     public Artist getArtist(final String username) {
-        return artists.stream()
-                .filter(artist -> artist.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.getArtist(username);
     }
 
     /**
@@ -191,10 +289,7 @@ public final class Admin {
      * @return the host
      */
     public Host getHost(final String username) {
-        return hosts.stream()
-                .filter(host -> host.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.getHost(username);
     }
 
     /**
@@ -212,7 +307,7 @@ public final class Admin {
             throw new IllegalArgumentException("Invalid timestamp" + newTimestamp);
         }
 
-        users.forEach(user -> user.simulateTime(elapsed));
+        scheduler.advance(newTimestamp);
     }
 
     /**
@@ -221,16 +316,7 @@ public final class Admin {
      * @return
      */
     public UserAbstract getAbstractUser(final String username) {
-        ArrayList<UserAbstract> allUsers = new ArrayList<>();
-
-        allUsers.addAll(users);
-        allUsers.addAll(artists);
-        allUsers.addAll(hosts);
-
-        return allUsers.stream()
-                .filter(userPlatform -> userPlatform.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return accounts.get(username);
     }
 
     private String validateArtistUser(final String username) {
@@ -287,11 +373,15 @@ public final class Admin {
         }
 
         if (type.equals("user")) {
-            users.add(new User(username, age, city));
+            User user = new User(this, username, age, city);
+            Stream.concat(getArtists().stream(), getHosts().stream())
+                    .filter(creator -> creator.getSubscribers().contains(username))
+                    .forEach(user.getInbox()::follow);
+            addAccount(user);
         } else if (type.equals("artist")) {
-            artists.add(new Artist(username, age, city));
+            addAccount(new Artist(this, username, age, city));
         } else {
-            hosts.add(new Host(username, age, city));
+            addAccount(new Host(this, username, age, city));
         }
 
         return "The username %s has been added successfully.".formatted(username);
@@ -322,53 +412,82 @@ public final class Admin {
     }
 
     private String deleteNormalUser(final User user) {
-        if (user.getPlaylists().stream().anyMatch(playlist -> users.stream().map(User::getPlayer)
-                .filter(player -> player != user.getPlayer())
-                .map(Player::getCurrentAudioCollection)
-                .filter(Objects::nonNull)
-                .anyMatch(collection -> collection == playlist))) {
+        if (user.getPlaylists().stream().anyMatch(playlist -> nowPlaying
+                .isLoadedByOther(playlist, user.getPlayer()))) {
             return "%s can't be deleted.".formatted(user.getUsername());
         }
 
-        user.getLikedSongs().forEach(Song::dislike);
-        user.getFollowedPlaylists().forEach(Playlist::decreaseFollowers);
+        user.getLikedSongs().forEach(song -> {
+            song.dislike();
+            leaderboards.changeLikes(song, -1);
+        });
+        user.getFollowedPlaylists().forEach(playlist -> {
+            playlist.decreaseFollowers();
+            leaderboards.changeFollowers(playlist, -1);
+        });
 
-        users.stream().filter(otherUser -> otherUser != user)
+        getUsers().stream().filter(otherUser -> otherUser != user)
                 .forEach(otherUser -> otherUser.getFollowedPlaylists()
                         .removeAll(user.getPlaylists()));
 
-        users.remove(user);
+        statistics.forget(user);
+        nowPlaying.forget(user);
+        user.getInbox().release();
+        user.getPlaylists().forEach(playlist -> {
+            searchIndex.removePlaylist(playlist);
+            leaderboards.removePlaylist(playlist);
+            genreProfiles.removePlaylist(playlist);
+        });
+        removeAccount(user);
+        playlistView.invalidate();
         return "%s was successfully deleted.".formatted(user.getUsername());
     }
 
     private String deleteHost(final Host host) {
-        if (host.getPodcasts().stream().anyMatch(podcast -> getAudioCollectionsStream()
-                .anyMatch(collection -> collection == podcast))
-                || users.stream().anyMatch(user -> user.getCurrentPage() == host.getPage())) {
+        if (host.getPodcasts().stream().anyMatch(nowPlaying::isLoaded)
+                || nowPlaying.isViewed(host.getPage())) {
             return "%s can't be deleted.".formatted(host.getUsername());
         }
 
-        host.getPodcasts().forEach(podcast -> podcasts.remove(podcast));
-        hosts.remove(host);
+        host.getPodcasts().forEach(podcast -> {
+            podcasts.remove(podcast);
+            searchIndex.removePodcast(podcast);
+        });
+        removeAccount(host);
+        podcastView.invalidate();
 
         return "%s was successfully deleted.".formatted(host.getUsername());
     }
 
     private String deleteArtist(final Artist artist) {
-        if (artist.getAlbums().stream().anyMatch(album -> album.getSongs().stream()
-                .anyMatch(song -> getAudioFilesStream().anyMatch(audioFile -> audioFile == song))
-                || getAudioCollectionsStream().anyMatch(collection -> collection == album))
-                || users.stream().anyMatch(user -> user.getCurrentPage() == artist.getPage())) {
+        if (artist.getAlbums().stream().anyMatch(album -> nowPlaying.isLoaded(album)
+                || album.getSongs().stream().anyMatch(nowPlaying::isPlaying))
+                || nowPlaying.isViewed(artist.getPage())) {
             return "%s can't be deleted.".formatted(artist.getUsername());
         }
 
-        users.forEach(user -> artist.getAlbums().forEach(album -> album.getSongs().forEach(song -> {
-            user.getLikedSongs().remove(song);
-            user.getPlaylists().forEach(playlist -> playlist.removeSong(song));
-        })));
+        getUsers().forEach(user -> artist.getAlbums().forEach(album -> album.getSongs()
+                .forEach(song -> {
+                    user.getLikedSongs().remove(song);
+                    genreProfiles.unlike(user, song);
+                    user.getPlaylists().forEach(playlist -> {
+                        playlist.removeSong(song);
+                        genreProfiles.removeFromPlaylist(playlist, song);
+                    });
+                })));
 
         songs.removeAll(artist.getAllSongs());
-        artists.remove(artist);
+        artist.getAllSongs().forEach(song -> {
+            searchIndex.removeSong(song);
+            leaderboards.removeSong(song);
+        });
+        artist.getAlbums().forEach(album -> {
+            searchIndex.removeAlbum(album);
+            leaderboards.removeAlbum(album);
+        });
+        removeAccount(artist);
+        songView.invalidate();
+        albumView.invalidate();
         return "%s was successfully deleted.".formatted(artist.getUsername());
     }
 
@@ -400,7 +519,8 @@ public final class Admin {
                         songInput.getLyrics(),
                         songInput.getGenre(),
                         songInput.getReleaseYear(),
-                        currentArtist.getUsername()))
+                        currentArtist.getUsername(),
+                        songSymbols))
                 .toList();
 
         Set<String> songNames = new HashSet<>();
@@ -410,11 +530,20 @@ public final class Admin {
         }
 
         songs.addAll(newSongs);
-        currentArtist.getAlbums().add(new Album(albumName,
+        newSongs.forEach(song -> {
+            searchIndex.addSong(song);
+            leaderboards.addSong(song);
+        });
+        Album newAlbum = new Album(albumName,
                 command.getDescription(),
                 username,
                 newSongs,
-                command.getReleaseYear()));
+                command.getReleaseYear());
+        currentArtist.getAlbums().add(newAlbum);
+        searchIndex.addAlbum(newAlbum);
+        leaderboards.addAlbum(currentArtist, newAlbum);
+        songView.invalidate();
+        albumView.invalidate();
 
         notify(currentArtist, "New Album", "New Album from " + username + ".");
         return "%s has added new album successfully.".formatted(username);
@@ -440,26 +569,36 @@ public final class Admin {
             return "%s doesn't have an album with the given name.".formatted(username);
         }
 
-        if (getAudioCollectionsStream().anyMatch(collection -> collection == searchedAlbum)) {
+        if (nowPlaying.isLoaded(searchedAlbum)) {
             return "%s can't delete this album.".formatted(username);
         }
 
         for (Song song : searchedAlbum.getSongs()) {
-            if (getAudioCollectionsStream().anyMatch(collection -> collection.containsTrack(song))
-                    || getAudioFilesStream().anyMatch(audioFile -> audioFile == song)) {
+            if (nowPlaying.isPlaying(song) || nowPlaying.getLoadedCollections().stream()
+                    .anyMatch(collection -> collection.containsTrack(song))) {
                 return "%s can't delete this album.".formatted(username);
             }
         }
 
         for (Song song: searchedAlbum.getSongs()) {
-            users.forEach(user -> {
+            getUsers().forEach(user -> {
                 user.getLikedSongs().remove(song);
-                user.getPlaylists().forEach(playlist -> playlist.removeSong(song));
+                genreProfiles.unlike(user, song);
+                user.getPlaylists().forEach(playlist -> {
+                    playlist.removeSong(song);
+                    genreProfiles.removeFromPlaylist(playlist, song);
+                });
             });
             songs.remove(song);
+            searchIndex.removeSong(song);
+            leaderboards.removeSong(song);
         }
 
         currentArtist.getAlbums().remove(searchedAlbum);
+        searchIndex.removeAlbum(searchedAlbum);
+        leaderboards.removeAlbum(searchedAlbum);
+        songView.invalidate();
+        albumView.invalidate();
         return "%s deleted the album successfully.".formatted(username);
     }
 
@@ -499,6 +638,8 @@ public final class Admin {
         Podcast newPodcast = new Podcast(podcastName, username, episodes);
         currentHost.getPodcasts().add(newPodcast);
         podcasts.add(newPodcast);
+        searchIndex.addPodcast(newPodcast);
+        podcastView.invalidate();
 
         notify(currentHost, "New Podcast", "New Podcast from " + username + ".");
         return "%s has added new podcast successfully.".formatted(username);
@@ -526,12 +667,14 @@ public final class Admin {
             return "%s doesn't have a podcast with the given name.".formatted(username);
         }
 
-        if (getAudioCollectionsStream().anyMatch(collection -> collection == searchedPodcast)) {
+        if (nowPlaying.isLoaded(searchedPodcast)) {
             return "%s can't delete this podcast.".formatted(username);
         }
 
         currentHost.getPodcasts().remove(searchedPodcast);
         podcasts.remove(searchedPodcast);
+        searchIndex.removePodcast(searchedPodcast);
+        podcastView.invalidate();
         return "%s deleted the podcast successfully.".formatted(username);
     }
 
@@ -783,7 +926,7 @@ public final class Admin {
      * @return the online users
      */
     public List<String> getOnlineUsers() {
-        return users.stream().filter(User::isOnline).map(User::getUsername).toList();
+        return getUsers().stream().filter(User::isOnline).map(User::getUsername).toList();
     }
 
     private String getFileOwner(final String normalUserName) {
@@ -800,16 +943,6 @@ public final class Admin {
         return null;
     }
 
-    private Stream<AudioCollection> getAudioCollectionsStream() {
-        return users.stream().map(User::getPlayer)
-                .map(Player::getCurrentAudioCollection).filter(Objects::nonNull);
-    }
-
-    private Stream<AudioFile> getAudioFilesStream() {
-        return users.stream().map(User::getPlayer)
-                .map(Player::getCurrentAudioFile).filter(Objects::nonNull);
-    }
-
     /**
      * Method that allows a user to subscribe/unsubscribe to an artist or host.
      * To do that the user should be on the page of the artist or host.
@@ -831,23 +964,24 @@ public final class Admin {
 
         ContentCreator pageOwner = (ContentCreator) getAbstractUser(pageOwnerName);
 
-        if (pageOwner.getSubscribers().contains(command.getUsername())) {
-            pageOwner.getSubscribers().remove(command.getUsername());
+        if (pageOwner.getSubscribers().remove(command.getUsername())) {
+            ((User) currentUser).getInbox().unfollow(pageOwner);
             return command.getUsername() + " unsubscribed from "
                     + pageOwner.getUsername() + " successfully.";
         } else {
             pageOwner.getSubscribers().add(command.getUsername());
+            ((User) currentUser).getInbox().follow(pageOwner);
             return command.getUsername() + " subscribed to "
                     + pageOwner.getUsername() + " successfully.";
         }
     }
 
+    /**
+     * Sends a notification to the subscribers of a creator. It is only added to the feed of
+     * the creator, the inboxes of the subscribers take it from there when it is asked for.
+     */
     private void notify(final ContentCreator creator, final String name, final String descript) {
-        for (User user : users) {
-            if (creator.getSubscribers().contains(user.getUsername())) {
-                user.getNotifications().add(new Notification(name, descript));
-            }
-        }
+        creator.getFeed().post(new Notification(name, descript), notificationCount++);
     }
 
     /**
@@ -953,30 +1087,29 @@ public final class Admin {
     public void distributePremiumRevenue(final User user, final int startIdx, final int endIdx) {
         Player userPlayer = user.getPlayer();
 
-        List<AudioFile> premiumSongs = new ArrayList<>(userPlayer.getHistory()
-                .subList(startIdx, endIdx));
-
-        if (premiumSongs.isEmpty()) {
+        if (startIdx >= endIdx) {
             return;
         }
 
         final double budget = 1000000;
-        final int nrSongs = premiumSongs.size();
+        final int nrSongs = endIdx - startIdx;
 
-        for (AudioFile song : premiumSongs) {
+        userPlayer.getHistory().forEach(startIdx, endIdx, (song, count) -> {
             ArtistRevenue revenue = userInteractions.get(song.getOwner());
 
             if (revenue == null) {
-                continue;
+                return;
             }
 
             final double amountForArtist = budget / nrSongs;
 
-            revenue.getProfitSongs().putIfAbsent(song.getName(), 0.0);
-            revenue.getProfitSongs().put(song.getName(), revenue.getProfitSongs()
-                    .get(song.getName()) + amountForArtist);
-            revenue.setSongRevenue(revenue.getSongRevenue() + amountForArtist);
-        }
+            for (int i = 0; i < count; i++) {
+                revenue.getProfitSongs().putIfAbsent(song.getName(), 0.0);
+                revenue.getProfitSongs().put(song.getName(), revenue.getProfitSongs()
+                        .get(song.getName()) + amountForArtist);
+                revenue.setSongRevenue(revenue.getSongRevenue() + amountForArtist);
+            }
+        });
     }
 
     /**
@@ -1067,19 +1200,4 @@ public final class Admin {
 
         return "No recommendations available.";
     }
-
-
-    /**
-     * Resets all database.
-     */
-    public void reset() {
-        users = new ArrayList<>();
-        songs = new ArrayList<>();
-        podcasts = new ArrayList<>();
-        artists = new ArrayList<>();
-        hosts = new ArrayList<>();
-        getAlbums().clear();
-        userInteractions.clear();
-        timestamp = 0;
-    }
 }
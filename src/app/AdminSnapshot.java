@@ -0,0 +1,355 @@
+package app;
+
+import app.analytics.statistics.UserStats;
+import app.audio.Collections.Podcast;
+import app.audio.Files.Song;
+import app.audio.LibraryEntry;
+import app.pages.ArtistPage;
+import app.pages.HomePage;
+import app.pages.HostPage;
+import app.pages.LikedContentPage;
+import app.pages.Page;
+import app.pages.pageContent.Announcement;
+import app.pages.pageContent.Event;
+import app.pages.pageContent.Merchandise;
+import app.recommendations.FansPlaylistStrategy;
+import app.recommendations.RandomPlaylistStrategy;
+import app.recommendations.RandomSongStrategy;
+import app.recommendations.RecommendationStrategy;
+import app.searchBar.SearchBase;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+import app.user.Artist;
+import app.user.ContentCreator;
+import app.user.Host;
+import app.user.User;
+import app.user.UserAbstract;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Saves the whole state of an Admin to a binary snapshot and builds a new Admin from one,
+ * so a session can go on from where the snapshot was taken without replaying its commands.
+ * Everything that shapes the output of the next commands is kept: the catalogs, every
+ * account with its player, listening history, pages, search bar and recommendations, the
+ * wrapped statistics and the revenues. Accounts that were deleted but are still pointed
+ * to, from a page history or search results, are kept too, without being registered.
+ * The search index, the now playing index and the pending wake-ups of the scheduler are
+ * not saved, they are built back from the rest. The command log saves its checkpoints
+ * with it and loads the latest one when it is opened again, and Main saves the state
+ * every input file ends with when asked to.
+ */
+public final class AdminSnapshot {
+    private static final int ACCOUNT_TYPES = 3;
+    private static final String RANDOM_SONG = "random_song";
+    private static final String RANDOM_PLAYLIST = "random_playlist";
+    private static final String FANS_PLAYLIST = "fans_playlist";
+    /**
+     * Every search makes a new search bar, so until the next one only the state kept by
+     * SearchBase is used and any strategy can hold it.
+     */
+    private static final String SEARCH_BAR_TYPE = "song";
+
+    private AdminSnapshot() {
+    }
+
+    /**
+     * Saves the state of an Admin. Nothing is caught up with the current timestamp, the
+     * state is saved as it is, apart from the histories whose commit is still pending,
+     * which are committed first.
+     *
+     * @param admin the Admin
+     * @param path  the file the snapshot is written to
+     * @throws IOException if the file can't be written
+     */
+    public static void save(final Admin admin, final Path path) throws IOException {
+        SnapshotOutput out = new SnapshotOutput();
+        admin.getUsers().forEach(user -> user.getPlayer().settle());
+
+        out.writeInt(admin.getTimestamp());
+        out.writeInt(admin.getNotificationCount());
+        admin.getCatalog().writeSnapshot(out);
+        out.writeSongs(admin.getSongs());
+        out.writePodcasts(admin.getPodcasts());
+        writeAccounts(out, admin.getUsers());
+        writeAccounts(out, admin.getArtists());
+        writeAccounts(out, admin.getHosts());
+
+        List<UserAbstract> accounts = out.getAccounts();
+        for (int i = 0; i < accounts.size(); i++) {
+            switch (accounts.get(i).userType()) {
+                case "user" -> writeUser(out, (User) accounts.get(i));
+                case "artist" -> writeArtist(out, (Artist) accounts.get(i));
+                default -> writeHost(out, (Host) accounts.get(i));
+            }
+        }
+
+        admin.getStatistics().writeSnapshot(out);
+        out.writeInt(admin.getUserInteractions().size());
+        admin.getUserInteractions().forEach((artist, revenue) -> {
+            out.writeString(artist);
+            out.writeRevenue(revenue);
+        });
+
+        out.writeTo(path);
+    }
+
+    /**
+     * Builds a new Admin from a snapshot.
+     *
+     * @param path the file the snapshot is read from
+     * @return the Admin, in the state the snapshot was taken in
+     * @throws IOException if the file can't be read or is not a valid snapshot
+     */
+    public static Admin load(final Path path) throws IOException {
+        Admin admin = new Admin();
+        SnapshotInput in = new SnapshotInput(path, admin);
+
+        int timestamp = in.readInt();
+        admin.setNotificationCount(in.readInt());
+        admin.getScheduler().advance(timestamp);
+        admin.getCatalog().readSnapshot(in);
+        List<UserAbstract> registered = new ArrayList<>();
+        List<Song> songs = in.readSongs();
+        List<Podcast> podcasts = in.readPodcasts();
+        for (int type = 0; type < ACCOUNT_TYPES; type++) {
+            for (int count = in.readInt(); count > 0; count--) {
+                registered.add(in.readAccount());
+            }
+        }
+
+        for (UserAbstract account : in.getAccounts()) {
+            switch (account.userType()) {
+                case "user" -> readUser(in, (User) account);
+                case "artist" -> readArtist(in, (Artist) account);
+                default -> readHost(in, (Host) account);
+            }
+        }
+
+        admin.getStatistics().readSnapshot(in);
+        for (int count = in.readInt(); count > 0; count--) {
+            String artist = in.readString();
+            admin.getUserInteractions().put(artist, in.readRevenue());
+        }
+
+        if (!in.isExhausted()) {
+            throw new IOException("Trailing data in snapshot: " + path);
+        }
+
+        admin.restore(timestamp, songs, podcasts, registered);
+        for (UserAbstract account : in.getAccounts()) {
+            if (account instanceof User && !registered.contains(account)) {
+                admin.getNowPlaying().forget((User) account);
+            }
+        }
+
+        return admin;
+    }
+
+    private static void writeAccounts(final SnapshotOutput out,
+                                      final List<? extends UserAbstract> accounts) {
+        out.writeInt(accounts.size());
+        accounts.forEach(out::writeAccount);
+    }
+
+    private static void writeCreator(final SnapshotOutput out, final ContentCreator creator) {
+        out.writeString(creator.getDescription());
+        out.writeStrings(creator.getSubscribers());
+        creator.getFeed().writeSnapshot(out);
+    }
+
+    private static void readCreator(final SnapshotInput in, final ContentCreator creator) {
+        creator.setDescription(in.readString());
+        creator.getSubscribers().addAll(in.readStrings());
+        creator.getFeed().readSnapshot(in);
+    }
+
+    private static void writeArtist(final SnapshotOutput out, final Artist artist) {
+        writeCreator(out, artist);
+        out.writeAlbums(artist.getAlbums());
+
+        out.writeInt(artist.getMerch().size());
+        for (Merchandise merch : artist.getMerch()) {
+            out.writeString(merch.getName());
+            out.writeString(merch.getDescription());
+            out.writeInt(merch.getPrice());
+        }
+
+        out.writeInt(artist.getEvents().size());
+        for (Event event : artist.getEvents()) {
+            out.writeString(event.getName());
+            out.writeString(event.getDescription());
+            out.writeString(event.getDate());
+        }
+
+        out.writeRevenue(artist.getRevenue());
+    }
+
+    private static void readArtist(final SnapshotInput in, final Artist artist) {
+        readCreator(in, artist);
+        artist.getAlbums().addAll(in.readAlbums());
+
+        for (int count = in.readInt(); count > 0; count--) {
+            String name = in.readString();
+            String description = in.readString();
+            artist.getMerch().add(new Merchandise(name, description, in.readInt()));
+        }
+
+        for (int count = in.readInt(); count > 0; count--) {
+            String name = in.readString();
+            String description = in.readString();
+            artist.getEvents().add(new Event(name, description, in.readString()));
+        }
+
+        artist.setRevenue(in.readRevenue());
+    }
+
+    private static void writeHost(final SnapshotOutput out, final Host host) {
+        writeCreator(out, host);
+        out.writePodcasts(host.getPodcasts());
+
+        out.writeInt(host.getAnnouncements().size());
+        for (Announcement announcement : host.getAnnouncements()) {
+            out.writeString(announcement.getName());
+            out.writeString(announcement.getDescription());
+        }
+    }
+
+    private static void readHost(final SnapshotInput in, final Host host) {
+        readCreator(in, host);
+        host.getPodcasts().addAll(in.readPodcasts());
+
+        for (int count = in.readInt(); count > 0; count--) {
+            String name = in.readString();
+            host.getAnnouncements().add(new Announcement(name, in.readString()));
+        }
+    }
+
+    private static void writeUser(final SnapshotOutput out, final User user) {
+        out.writeBoolean(user.isOnline());
+        out.writeBoolean(user.isPremium());
+        out.writeBoolean(user.isLastSearched());
+        out.writePlaylists(user.getPlaylists());
+        out.writeSongs(user.getLikedSongs());
+        out.writePlaylists(user.getFollowedPlaylists());
+        out.writeSongs(user.getSongRecommendations());
+        out.writePlaylists(user.getPlaylistRecommendations());
+        out.writeStrings(user.getMerchBought());
+
+        user.getInbox().writeSnapshot(out);
+
+        UserStats stats = user.getUserStats();
+        out.writeCounts(stats.getTopArtists());
+        out.writeCounts(stats.getTopGenres());
+        out.writeCounts(stats.getTopSongs());
+        out.writeCounts(stats.getTopAlbums());
+        out.writeCounts(stats.getTopEpisodes());
+
+        writePages(out, user.getBackHistory());
+        writePages(out, user.getForwardHistory());
+
+        SearchBase<?> searchBar = (SearchBase<?>) user.getSearchBar();
+        out.writeBoolean(searchBar != null);
+        if (searchBar != null) {
+            searchBar.writeSnapshot(out);
+        }
+
+        RecommendationStrategy recommendation = user.getRecommendation();
+        out.writeString(recommendationType(recommendation));
+        if (recommendation != null) {
+            out.writeAccount(recommendation.getUserAbstract());
+            out.writeReference(recommendation.getLastRecommendation());
+            out.writeString(recommendation.getLastRecommendationType());
+        }
+
+        user.getPlayer().writeSnapshot(out);
+    }
+
+    private static void readUser(final SnapshotInput in, final User user) {
+        user.setOnline(in.readBoolean());
+        user.setPremium(in.readBoolean());
+        user.setLastSearched(in.readBoolean());
+        user.getPlaylists().addAll(in.readPlaylists());
+        user.getLikedSongs().addAll(in.readSongs());
+        user.getFollowedPlaylists().addAll(in.readPlaylists());
+        user.getSongRecommendations().addAll(in.readSongs());
+        user.getPlaylistRecommendations().addAll(in.readPlaylists());
+        user.getMerchBought().addAll(in.readStrings());
+
+        user.getInbox().readSnapshot(in);
+
+        UserStats stats = user.getUserStats();
+        in.readCounts(stats.getTopArtists());
+        in.readCounts(stats.getTopGenres());
+        in.readCounts(stats.getTopSongs());
+        in.readCounts(stats.getTopAlbums());
+        in.readCounts(stats.getTopEpisodes());
+
+        Page constructed = user.getCurrentPage();
+        user.getBackHistory().clear();
+        readPages(in, user, user.getBackHistory());
+        readPages(in, user, user.getForwardHistory());
+        user.getAdmin().getNowPlaying().movePage(user, constructed, user.getCurrentPage());
+
+        if (in.readBoolean()) {
+            SearchBase<?> searchBar = (SearchBase<?>) user.getAdmin().getSearchStrategies()
+                    .getSearchStrategy(SEARCH_BAR_TYPE, user.getUsername());
+            searchBar.readSnapshot(in);
+            user.setSearchBar(searchBar);
+        }
+
+        String recommendationType = in.readString();
+        if (recommendationType != null) {
+            UserAbstract owner = in.readAccount();
+            RecommendationStrategy recommendation = switch (recommendationType) {
+                case RANDOM_SONG -> new RandomSongStrategy(owner);
+                case RANDOM_PLAYLIST -> new RandomPlaylistStrategy(owner);
+                default -> new FansPlaylistStrategy(owner);
+            };
+            recommendation.setLastRecommendation((LibraryEntry) in.readReference());
+            recommendation.setLastRecommendationType(in.readString());
+            user.setRecommendation(recommendation);
+        }
+
+        user.getPlayer().readSnapshot(in);
+    }
+
+    private static String recommendationType(final RecommendationStrategy recommendation) {
+        if (recommendation instanceof RandomSongStrategy) {
+            return RANDOM_SONG;
+        } else if (recommendation instanceof RandomPlaylistStrategy) {
+            return RANDOM_PLAYLIST;
+        } else if (recommendation instanceof FansPlaylistStrategy) {
+            return FANS_PLAYLIST;
+        }
+
+        return null;
+    }
+
+    private static void writePages(final SnapshotOutput out, final Deque<Page> pages) {
+        out.writeInt(pages.size());
+        for (Page page : pages) {
+            out.writeString(page.pageType());
+            if (page instanceof ArtistPage) {
+                out.writeAccount(((ArtistPage) page).getArtist());
+            } else if (page instanceof HostPage) {
+                out.writeAccount(((HostPage) page).getHost());
+            }
+        }
+    }
+
+    private static void readPages(final SnapshotInput in, final User user,
+                                  final Deque<Page> pages) {
+        for (int count = in.readInt(); count > 0; count--) {
+            pages.addLast(switch (in.readString()) {
+                case "Home" -> new HomePage(user);
+                case "LikedContent" -> new LikedContentPage(user);
+                default -> ((ContentCreator) in.readAccount()).getPage();
+            });
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package app.analytics;
+
+import app.audio.Collections.Playlist;
+import app.audio.Files.Song;
+import app.user.User;
+import app.user.UserAbstract;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * How many songs of every genre each user has, counting the songs the user liked, the
+ * songs of the playlists the user made and the songs of the playlists the user follows,
+ * kept up to date as they change, so the genres a user prefers are found without going
+ * through the songs.
+ *
+ * <p>The songs are also kept genre by genre in the order they were liked or added to their
+ * playlists. Genres with as many songs are ranked in the order of a hash map filled with
+ * the genres in the order they first show up in the liked songs, then in the playlists,
+ * which is how they were counted before; this order is read off the first song of every
+ * genre in each list, without going through the songs either.
+ */
+public final class GenreProfiles {
+    private final Map<User, Profile> profiles = new IdentityHashMap<>();
+    private final Map<Playlist, Shared> playlists = new IdentityHashMap<>();
+
+    /**
+     * Counts a song a user just liked.
+     *
+     * @param user the user
+     * @param song the song
+     */
+    public void like(final User user, final Song song) {
+        Profile profile = profile(user);
+        if (profile.liked.add(song)) {
+            profile.count(song.getGenre(), 1);
+        }
+    }
+
+    /**
+     * Takes back a song a user no longer likes, if the user liked it.
+     *
+     * @param user the user
+     * @param song the song
+     */
+    public void unlike(final User user, final Song song) {
+        Profile profile = profiles.get(user);
+        if (profile != null && profile.liked.remove(song)) {
+            profile.count(song.getGenre(), -1);
+        }
+    }
+
+    /**
+     * Registers a playlist a user just made, with the songs already in it.
+     *
+     * @param owner    the user
+     * @param playlist the playlist
+     */
+    public void addPlaylist(final User owner, final Playlist playlist) {
+        Shared shared = new Shared();
+        playlists.put(playlist, shared);
+        playlist.getSongs().forEach(shared.songs::add);
+        hold(profile(owner), shared, 1);
+    }
+
+    /**
+     * Forgets a playlist that is deleted, taking its songs back from whoever had it.
+     *
+     * @param playlist the playlist
+     */
+    public void removePlaylist(final Playlist playlist) {
+        Shared shared = playlists.remove(playlist);
+        if (shared != null) {
+            new ArrayList<>(shared.holders).forEach(profile -> hold(profile, shared, -1));
+        }
+    }
+
+    /**
+     * Counts a song just added to a playlist, for its owner and its followers.
+     *
+     * @param playlist the playlist
+     * @param song     the song
+     */
+    public void addToPlaylist(final Playlist playlist, final Song song) {
+        Shared shared = playlists.get(playlist);
+        if (shared != null && shared.songs.add(song)) {
+            shared.holders.forEach(profile -> profile.count(song.getGenre(), 1));
+        }
+    }
+
+    /**
+     * Takes back a song removed from a playlist, if it was in it.
+     *
+     * @param playlist the playlist
+     * @param song     the song
+     */
+    public void removeFromPlaylist(final Playlist playlist, final Song song) {
+        Shared shared = playlists.get(playlist);
+        if (shared != null && shared.songs.remove(song)) {
+            shared.holders.forEach(profile -> profile.count(song.getGenre(), -1));
+        }
+    }
+
+    /**
+     * Counts the songs of a playlist a user just followed.
+     *
+     * @param user     the user
+     * @param playlist the playlist
+     */
+    public void follow(final User user, final Playlist playlist) {
+        Shared shared = playlists.get(playlist);
+        if (shared != null) {
+            hold(profile(user), shared, 1);
+        }
+    }
+
+    /**
+     * Takes back the songs of a playlist a user unfollowed.
+     *
+     * @param user     the user
+     * @param playlist the playlist
+     */
+    public void unfollow(final User user, final Playlist playlist) {
+        Shared shared = playlists.get(playlist);
+        Profile profile = profiles.get(user);
+        if (shared != null && profile != null) {
+            hold(profile, shared, -1);
+        }
+    }
+
+    /**
+     * Forgets an account. The playlists of a user have to be removed on their own.
+     *
+     * @param account the account
+     */
+    public void removeAccount(final UserAbstract account) {
+        Profile profile = profiles.remove(account);
+        if (profile != null) {
+            playlists.values().forEach(shared -> shared.holders.remove(profile));
+        }
+    }
+
+    /**
+     * Gets the genres a user has the most songs of.
+     *
+     * @param user  the user
+     * @param count the number of genres
+     * @return at most that many genres, the one with the most songs first
+     */
+    public List<String> topGenres(final User user, final int count) {
+        Profile profile = profiles.get(user);
+        if (profile == null || profile.counts.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> genreCount = new HashMap<>();
+        for (String genre : firstShowings(user, profile)) {
+            genreCount.put(genre, profile.counts.get(genre));
+        }
+
+        return genreCount.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .limit(count)
+                .toList();
+    }
+
+    /**
+     * Gets the genre, out of some, a user liked the most songs of. Among genres with as
+     * many liked songs, it is the one that got there first, the one whose last song was
+     * liked the earliest.
+     *
+     * @param user   the user
+     * @param genres the genres
+     * @return the genre, or null if the user likes no song of these genres
+     */
+    public String mostLikedGenre(final User user, final List<String> genres) {
+        Profile profile = profiles.get(user);
+        if (profile == null) {
+            return null;
+        }
+
+        String mostLiked = null;
+        int mostLikedCount = 0;
+        long mostLikedLast = 0;
+        for (String genre : genres) {
+            NavigableSet<Long> positions = profile.liked.genres.get(genre);
+            if (positions == null) {
+                continue;
+            }
+
+            if (positions.size() > mostLikedCount || (positions.size() == mostLikedCount
+                    && positions.last() < mostLikedLast)) {
+                mostLiked = genre;
+                mostLikedCount = positions.size();
+                mostLikedLast = positions.last();
+            }
+        }
+
+        return mostLiked;
+    }
+
+    private Profile profile(final User user) {
+        return profiles.computeIfAbsent(user, key -> new Profile());
+    }
+
+    private void hold(final Profile profile, final Shared shared, final int sign) {
+        if (sign > 0) {
+            shared.holders.add(profile);
+        } else {
+            shared.holders.remove(profile);
+        }
+        shared.songs.genres.forEach((genre, positions) ->
+                profile.count(genre, sign * positions.size()));
+    }
+
+    /**
+     * Lists the genres a user has songs of in the order they first show up in the liked
+     * songs, then in the playlists of the user, then in the ones the user follows.
+     */
+    private List<String> firstShowings(final User user, final Profile profile) {
+        List<String> order = new ArrayList<>(profile.counts.size());
+        Set<String> seen = new HashSet<>();
+        profile.liked.firstShowings(order, seen);
+
+        List<Playlist> held = Stream.concat(user.getPlaylists().stream(),
+                user.getFollowedPlaylists().stream()).toList();
+        for (Playlist playlist : held) {
+            if (seen.size() == profile.counts.size()) {
+                break;
+            }
+
+            Shared shared = playlists.get(playlist);
+            if (shared != null) {
+                shared.songs.firstShowings(order, seen);
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Songs in the order they were added, grouped by genre.
+     */
+    private static final class Tracks {
+        private final Map<Song, Long> positions = new IdentityHashMap<>();
+        private final Map<String, NavigableSet<Long>> genres = new HashMap<>();
+        private long added;
+
+        boolean add(final Song song) {
+            if (positions.containsKey(song)) {
+                return false;
+            }
+
+            positions.put(song, added);
+            genres.computeIfAbsent(song.getGenre(), genre -> new TreeSet<>()).add(added++);
+            return true;
+        }
+
+        boolean remove(final Song song) {
+            Long position = positions.remove(song);
+            if (position == null) {
+                return false;
+            }
+
+            NavigableSet<Long> sameGenre = genres.get(song.getGenre());
+            sameGenre.remove(position);
+            if (sameGenre.isEmpty()) {
+                genres.remove(song.getGenre());
+            }
+            return true;
+        }
+
+        void firstShowings(final List<String> order, final Set<String> seen) {
+            List<String> showing = new ArrayList<>();
+            for (String genre : genres.keySet()) {
+                if (seen.add(genre)) {
+                    showing.add(genre);
+                }
+            }
+
+            showing.sort(Comparator.comparing(genre -> genres.get(genre).first()));
+            order.addAll(showing);
+        }
+    }
+
+    private static final class Profile {
+        private final Tracks liked = new Tracks();
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        void count(final String genre, final int delta) {
+            int total = counts.getOrDefault(genre, 0) + delta;
+            if (total == 0) {
+                counts.remove(genre);
+            } else {
+                counts.put(genre, total);
+            }
+        }
+    }
+
+    private static final class Shared {
+        private final Tracks songs = new Tracks();
+        private final Set<Profile> holders = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,133 @@
+package app.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ranking of entries by a score, highest first, kept sorted as the scores change, so the
+ * top of the ranking is read without sorting anything. Adding, removing and changing the
+ * score of an entry take logarithmic time.
+ *
+ * <p>Entries with the same score are ranked by the tie-breaker, then by their group, then
+ * in the order they were added. The group is the sign-up order of the account an entry
+ * belongs to, for rankings of entries that were sorted account by account.
+ *
+ * @param <T> the type of the entries, compared by identity
+ */
+public final class Leaderboard<T> {
+    private final Comparator<? super T> ties;
+    private final TreeSet<Entry<T>> ranking = new TreeSet<>(this::compare);
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+    private long added;
+
+    /**
+     * Instantiates a new, empty Leaderboard.
+     *
+     * @param ties ranks the entries with the same score; it must only look at what never
+     *             changes in an entry
+     */
+    public Leaderboard(final Comparator<? super T> ties) {
+        this.ties = ties;
+    }
+
+    /**
+     * Adds an entry, ranked after the entries added before it that tie with it.
+     *
+     * @param item  the entry
+     * @param score its score
+     * @param group its group
+     */
+    public void add(final T item, final int score, final long group) {
+        Entry<T> entry = new Entry<>(item, score, group, added++);
+        entries.put(item, entry);
+        ranking.add(entry);
+    }
+
+    /**
+     * Removes an entry, if it is ranked.
+     *
+     * @param item the entry
+     */
+    public void remove(final T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            ranking.remove(entry);
+        }
+    }
+
+    /**
+     * Changes the score of an entry, if it is ranked.
+     *
+     * @param item  the entry
+     * @param delta what is added to its score
+     */
+    public void change(final T item, final int delta) {
+        Entry<T> entry = entries.get(item);
+        if (entry != null && delta != 0) {
+            ranking.remove(entry);
+            entry.score += delta;
+            ranking.add(entry);
+        }
+    }
+
+    /**
+     * Gets the score of an entry.
+     *
+     * @param item the entry
+     * @return its score, or 0 if it is not ranked
+     */
+    public int getScore(final T item) {
+        Entry<T> entry = entries.get(item);
+        return entry == null ? 0 : entry.score;
+    }
+
+    /**
+     * Gets the top of the ranking.
+     *
+     * @param count the number of entries
+     * @return at most that many entries, highest first
+     */
+    public List<T> top(final int count) {
+        List<T> top = new ArrayList<>(count);
+        Iterator<Entry<T>> iterator = ranking.iterator();
+        while (top.size() < count && iterator.hasNext()) {
+            top.add(iterator.next().item);
+        }
+
+        return top;
+    }
+
+    private int compare(final Entry<T> first, final Entry<T> second) {
+        if (first.score != second.score) {
+            return Integer.compare(second.score, first.score);
+        }
+
+        int tie = ties.compare(first.item, second.item);
+        if (tie != 0) {
+            return tie;
+        } else if (first.group != second.group) {
+            return Long.compare(first.group, second.group);
+        }
+
+        return Long.compare(first.order, second.order);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long group;
+        private final long order;
+        private int score;
+
+        Entry(final T item, final int score, final long group, final long order) {
+            this.item = item;
+            this.score = score;
+            this.group = group;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package app.analytics;
+
+import app.audio.Collections.Album;
+import app.audio.Collections.Playlist;
+import app.audio.Files.Song;
+import app.user.Artist;
+import app.user.User;
+import app.user.UserAbstract;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The rankings behind the top 5 commands, kept up to date as songs are liked and
+ * playlists followed, instead of being sorted again for every command. Songs are ranked
+ * by likes, albums and artists by the likes of all their songs, and playlists by
+ * followers, with the same ties as the lists of the platform sorted by a stable sort:
+ * songs in catalog order, albums by name, then artist by artist, artists in sign-up order
+ * and playlists by creation time, then user by user.
+ *
+ * <p>The liked songs of a user are ranked the same way, by likes, then in the order the
+ * user liked them, all together or genre by genre. They are ranked when they are read,
+ * keeping only the few songs asked for, rather than kept ranked for every user who likes
+ * a song each time the song is liked.
+ */
+public final class Leaderboards {
+    private static final Comparator<Object> NO_TIES = (first, second) -> 0;
+
+    @Getter
+    private final Leaderboard<Song> songs = new Leaderboard<>(NO_TIES);
+    @Getter
+    private final Leaderboard<Album> albums =
+            new Leaderboard<>(Comparator.comparing(Album::getName));
+    @Getter
+    private final Leaderboard<Artist> artists = new Leaderboard<>(NO_TIES);
+    @Getter
+    private final Leaderboard<Playlist> playlists =
+            new Leaderboard<>(Comparator.comparingInt(Playlist::getTimestamp));
+    private final Map<Song, Album> songAlbums = new IdentityHashMap<>();
+    private final Map<Album, Artist> albumArtists = new IdentityHashMap<>();
+
+    /**
+     * Registers an account. Artists are ranked from here on, with the likes of the albums
+     * added to them.
+     *
+     * @param account the account
+     */
+    public void addAccount(final UserAbstract account) {
+        if (account instanceof Artist) {
+            artists.add((Artist) account, 0, account.getId());
+        }
+    }
+
+    /**
+     * Forgets an account. Its albums or playlists have to be removed on their own.
+     *
+     * @param account the account
+     */
+    public void removeAccount(final UserAbstract account) {
+        if (account instanceof Artist) {
+            artists.remove((Artist) account);
+        }
+    }
+
+    /**
+     * Ranks a song of the catalog, after the songs already in it.
+     *
+     * @param song the song
+     */
+    public void addSong(final Song song) {
+        songs.add(song, song.getLikes(), 0);
+    }
+
+    /**
+     * Removes a song from the catalog ranking.
+     *
+     * @param song the song
+     */
+    public void removeSong(final Song song) {
+        songs.remove(song);
+    }
+
+    /**
+     * Ranks an album and adds the likes of its songs to its artist.
+     *
+     * @param artist the artist
+     * @param album  the album
+     */
+    public void addAlbum(final Artist artist, final Album album) {
+        int likes = 0;
+        for (Song song : album.getSongs()) {
+            likes += song.getLikes();
+            songAlbums.put(song, album);
+        }
+
+        albums.add(album, likes, artist.getId());
+        albumArtists.put(album, artist);
+        artists.change(artist, likes);
+    }
+
+    /**
+     * Removes an album and takes the likes of its songs from its artist.
+     *
+     * @param album the album
+     */
+    public void removeAlbum(final Album album) {
+        artists.change(albumArtists.remove(album), -albums.getScore(album));
+        albums.remove(album);
+        album.getSongs().forEach(songAlbums::remove);
+    }
+
+    /**
+     * Ranks a playlist.
+     *
+     * @param owner    the user who made it
+     * @param playlist the playlist
+     */
+    public void addPlaylist(final User owner, final Playlist playlist) {
+        playlists.add(playlist, playlist.getFollowers(), owner.getId());
+    }
+
+    /**
+     * Removes a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void removePlaylist(final Playlist playlist) {
+        playlists.remove(playlist);
+    }
+
+    /**
+     * Gets the songs a user liked with the most likes.
+     *
+     * @param user  the user
+     * @param count the number of songs
+     * @return at most that many songs, most liked first
+     */
+    public List<Song> topLikedSongs(final User user, final int count) {
+        return topLiked(user.getLikedSongs(), song -> true, count);
+    }
+
+    /**
+     * Gets the songs of a genre a user liked with the most likes.
+     *
+     * @param user  the user
+     * @param genre the genre
+     * @param count the number of songs
+     * @return at most that many songs, most liked first
+     */
+    public List<Song> topLikedSongs(final User user, final String genre, final int count) {
+        return topLiked(user.getLikedSongs(), song -> song.getGenre().equals(genre), count);
+    }
+
+    /**
+     * Keeps the most liked songs seen so far, in order, going through the liked songs in
+     * the order they were liked, so a song only goes before the ones it has more likes than.
+     */
+    private static List<Song> topLiked(final Collection<Song> liked,
+                                       final Predicate<Song> filter, final int count) {
+        List<Song> top = new ArrayList<>(count + 1);
+        for (Song song : liked) {
+            if (!filter.test(song)) {
+                continue;
+            }
+
+            int position = top.size();
+            while (position > 0 && top.get(position - 1).getLikes() < song.getLikes()) {
+                position--;
+            }
+            if (position < count) {
+                top.add(position, song);
+                if (top.size() > count) {
+                    top.remove(count);
+                }
+            }
+        }
+
+        return top;
+    }
+
+    /**
+     * Moves a song, its album and its artist after the song was liked or unliked.
+     *
+     * @param song  the song
+     * @param delta the change of its likes
+     */
+    public void changeLikes(final Song song, final int delta) {
+        songs.change(song, delta);
+        Album album = songAlbums.get(song);
+        if (album != null) {
+            albums.change(album, delta);
+            artists.change(albumArtists.get(album), delta);
+        }
+    }
+
+    /**
+     * Moves a playlist after it was followed or unfollowed.
+     *
+     * @param playlist the playlist
+     * @param delta    the change of its followers
+     */
+    public void changeFollowers(final Playlist playlist, final int delta) {
+        playlists.change(playlist, delta);
+    }
+}
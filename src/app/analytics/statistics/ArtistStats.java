@@ -1,5 +1,6 @@
 package app.analytics.statistics;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,9 +13,14 @@ import java.util.*;
 public class ArtistStats {
     private Map<String, Integer> topAlbums;
     private Map<String, Integer> topSongs;
+    @Setter(AccessLevel.NONE)
     private Map<String, Integer> topFans;
     private Set<String> listeners;
     private List<String> listTopFans;
+    @Getter(AccessLevel.NONE)
+    private final NavigableSet<String> fanRanking = new TreeSet<>(Comparator
+            .comparing((String fan) -> topFans.get(fan)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
 
     public ArtistStats() {
         topAlbums = new HashMap<>();
@@ -29,8 +35,17 @@ public class ArtistStats {
      * @param album
      */
     public void addTopAlbum(final String album) {
+        addTopAlbum(album, 1);
+    }
+
+    /**
+     * Adds an album to the top albums map several times
+     * @param album
+     * @param count
+     */
+    public void addTopAlbum(final String album, final int count) {
         topAlbums.putIfAbsent(album, 0);
-        topAlbums.put(album, topAlbums.get(album) + 1);
+        topAlbums.put(album, topAlbums.get(album) + count);
     }
 
     /**
@@ -38,8 +53,17 @@ public class ArtistStats {
      * @param song
      */
     public void addTopSong(final String song) {
+        addTopSong(song, 1);
+    }
+
+    /**
+     * Adds a song to the top songs map several times
+     * @param song
+     * @param count
+     */
+    public void addTopSong(final String song, final int count) {
         topSongs.putIfAbsent(song, 0);
-        topSongs.put(song, topSongs.get(song) + 1);
+        topSongs.put(song, topSongs.get(song) + count);
     }
 
     /**
@@ -47,8 +71,63 @@ public class ArtistStats {
      * @param user
      */
     public void addTopFan(final String user) {
+        addTopFan(user, 1);
+    }
+
+    /**
+     * Adds a fan to the top fans map several times
+     * @param user
+     * @param count
+     */
+    public void addTopFan(final String user, final int count) {
+        if (topFans.containsKey(user)) {
+            fanRanking.remove(user);
+        }
         topFans.putIfAbsent(user, 0);
-        topFans.put(user, topFans.get(user) + 1);
+        topFans.put(user, topFans.get(user) + count);
+        fanRanking.add(user);
+    }
+
+    /**
+     * Gets the fans who listened to the artist the most, ranked as they are listening,
+     * ties broken by name
+     * @param count the number of fans
+     * @return at most that many fans, top fan first
+     */
+    public List<String> getFansRanking(final int count) {
+        return fanRanking.stream().limit(count).toList();
+    }
+
+    /**
+     * Takes back listens of an album, dropping it once none is left
+     * @param album
+     * @param count
+     */
+    public void removeTopAlbum(final String album, final int count) {
+        topAlbums.computeIfPresent(album, (key, listens) -> listens > count
+                                                            ? listens - count : null);
+    }
+
+    /**
+     * Takes back listens of a song, dropping it once none is left
+     * @param song
+     * @param count
+     */
+    public void removeTopSong(final String song, final int count) {
+        topSongs.computeIfPresent(song, (key, listens) -> listens > count
+                                                          ? listens - count : null);
+    }
+
+    /**
+     * Removes a fan from the top fans map and from the listeners
+     * @param user
+     */
+    public void removeFan(final String user) {
+        if (topFans.containsKey(user)) {
+            fanRanking.remove(user);
+        }
+        topFans.remove(user);
+        listeners.remove(user);
     }
 
     /**
@@ -74,6 +153,7 @@ public class ArtistStats {
         topAlbums.clear();
         topSongs.clear();
         topFans.clear();
+        fanRanking.clear();
         listeners.clear();
         listTopFans.clear();
     }
@@ -23,8 +23,35 @@ public class HostStats {
      * @param episode
      */
     public void addTopEpisode(final String episode) {
+        addTopEpisode(episode, 1);
+    }
+
+    /**
+     * Adds an episode to the top episodes map several times
+     * @param episode
+     * @param count
+     */
+    public void addTopEpisode(final String episode, final int count) {
         topEpisodes.putIfAbsent(episode, 0);
-        topEpisodes.put(episode, topEpisodes.get(episode) + 1);
+        topEpisodes.put(episode, topEpisodes.get(episode) + count);
+    }
+
+    /**
+     * Takes back listens of an episode, dropping it once none is left
+     * @param episode
+     * @param count
+     */
+    public void removeTopEpisode(final String episode, final int count) {
+        topEpisodes.computeIfPresent(episode, (key, listens) -> listens > count
+                                                                ? listens - count : null);
+    }
+
+    /**
+     * Removes a listener from the listeners set
+     * @param user
+     */
+    public void removeListener(final String user) {
+        listeners.remove(user);
     }
 
     /**
@@ -0,0 +1,144 @@
+package app.analytics.statistics;
+
+import app.audio.Files.AudioFile;
+import app.audio.Files.Song;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+import app.user.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the wrapped statistics of every user, artist and host up to date as tracks are
+ * added to the listening histories, so wrapped only has to pick the top entries. Artists
+ * and hosts are looked up by name, the way songs and episodes refer to their owners, so
+ * the statistics exist before (and after) the matching account does.
+ */
+public final class StatisticsLedger {
+    private final Map<String, ArtistStats> artists = new HashMap<>();
+    private final Map<String, HostStats> hosts = new HashMap<>();
+
+    /**
+     * Gets the statistics of an artist.
+     *
+     * @param artist the name of the artist
+     * @return the statistics
+     */
+    public ArtistStats getArtistStats(final String artist) {
+        return artists.computeIfAbsent(artist, name -> new ArtistStats());
+    }
+
+    /**
+     * Gets the statistics of a host.
+     *
+     * @param host the name of the host
+     * @return the statistics
+     */
+    public HostStats getHostStats(final String host) {
+        return hosts.computeIfAbsent(host, name -> new HostStats());
+    }
+
+    /**
+     * Records that a user listened to a track.
+     *
+     * @param user      the user
+     * @param audioFile the track
+     * @param count     how many times it was played
+     */
+    public void record(final User user, final AudioFile audioFile, final int count) {
+        UserStats stats = user.getUserStats();
+
+        if (audioFile.getType().equals("song")) {
+            Song song = (Song) audioFile;
+            stats.addTopArtist(song.getArtist(), count);
+            stats.addTopAlbum(song.getAlbum(), count);
+            stats.addTopGenre(song.getGenre(), count);
+            stats.addTopSong(song.getName(), count);
+
+            ArtistStats artistStats = getArtistStats(song.getArtist());
+            artistStats.addListener(user.getUsername());
+            artistStats.addTopAlbum(song.getAlbum(), count);
+            artistStats.addTopSong(song.getName(), count);
+            artistStats.addTopFan(user.getUsername(), count);
+        } else {
+            stats.addTopEpisode(audioFile.getName(), count);
+
+            HostStats hostStats = getHostStats(audioFile.getOwner());
+            hostStats.addListener(user.getUsername());
+            hostStats.addTopEpisode(audioFile.getName(), count);
+        }
+    }
+
+    /**
+     * Takes back everything a deleted user listened to from the artists and hosts.
+     *
+     * @param user the user
+     */
+    public void forget(final User user) {
+        user.getPlayer().getHistory().forEachCommitted((audioFile, count) -> {
+            if (audioFile.getType().equals("song")) {
+                Song song = (Song) audioFile;
+                ArtistStats artistStats = getArtistStats(song.getArtist());
+                artistStats.removeTopAlbum(song.getAlbum(), count);
+                artistStats.removeTopSong(song.getName(), count);
+                artistStats.removeFan(user.getUsername());
+            } else {
+                HostStats hostStats = getHostStats(audioFile.getOwner());
+                hostStats.removeTopEpisode(audioFile.getName(), count);
+                hostStats.removeListener(user.getUsername());
+            }
+        });
+    }
+
+    /**
+     * Writes the statistics of every artist and host to a snapshot.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(artists.size());
+        artists.forEach((name, stats) -> {
+            out.writeString(name);
+            out.writeCounts(stats.getTopAlbums());
+            out.writeCounts(stats.getTopSongs());
+            out.writeCounts(stats.getTopFans());
+            out.writeStrings(stats.getListeners());
+            out.writeStrings(stats.getListTopFans());
+        });
+
+        out.writeInt(hosts.size());
+        hosts.forEach((name, stats) -> {
+            out.writeString(name);
+            out.writeCounts(stats.getTopEpisodes());
+            out.writeStrings(stats.getListeners());
+        });
+    }
+
+    /**
+     * Reads the statistics back from a snapshot, into the statistics the accounts read
+     * back already point to.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        for (int count = in.readInt(); count > 0; count--) {
+            ArtistStats stats = getArtistStats(in.readString());
+            stats.reset();
+            in.readCounts(stats.getTopAlbums());
+            in.readCounts(stats.getTopSongs());
+            Map<String, Integer> fans = new HashMap<>();
+            in.readCounts(fans);
+            fans.forEach(stats::addTopFan);
+            stats.getListeners().addAll(in.readStrings());
+            stats.setListTopFans(in.readStrings());
+        }
+
+        for (int count = in.readInt(); count > 0; count--) {
+            HostStats stats = getHostStats(in.readString());
+            stats.reset();
+            in.readCounts(stats.getTopEpisodes());
+            stats.getListeners().addAll(in.readStrings());
+        }
+    }
+}
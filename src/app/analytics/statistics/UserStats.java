@@ -7,7 +7,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Class for storing user statistics
+ * Class for storing user statistics. Entries are counted by name, so songs, albums and
+ * episodes sharing a name are counted together, the way wrapped prints and ranks them.
  */
 @Getter @Setter
 public class UserStats {
@@ -30,8 +31,17 @@ public class UserStats {
      * @param artist
      */
     public void addTopArtist(final String artist) {
+        addTopArtist(artist, 1);
+    }
+
+    /**
+     * Adds an artist to the top artists map several times
+     * @param artist
+     * @param count
+     */
+    public void addTopArtist(final String artist, final int count) {
         topArtists.putIfAbsent(artist, 0);
-        topArtists.put(artist, topArtists.get(artist) + 1);
+        topArtists.put(artist, topArtists.get(artist) + count);
     }
 
     /**
@@ -39,8 +49,17 @@ public class UserStats {
      * @param genre
      */
     public void addTopGenre(final String genre) {
+        addTopGenre(genre, 1);
+    }
+
+    /**
+     * Adds a genre to the top genres map several times
+     * @param genre
+     * @param count
+     */
+    public void addTopGenre(final String genre, final int count) {
         topGenres.putIfAbsent(genre, 0);
-        topGenres.put(genre, topGenres.get(genre) + 1);
+        topGenres.put(genre, topGenres.get(genre) + count);
     }
 
     /**
@@ -48,8 +67,17 @@ public class UserStats {
      * @param song
      */
     public void addTopSong(final String song) {
+        addTopSong(song, 1);
+    }
+
+    /**
+     * Adds a song to the top songs map several times
+     * @param song
+     * @param count
+     */
+    public void addTopSong(final String song, final int count) {
         topSongs.putIfAbsent(song, 0);
-        topSongs.put(song, topSongs.get(song) + 1);
+        topSongs.put(song, topSongs.get(song) + count);
     }
 
     /**
@@ -57,8 +85,17 @@ public class UserStats {
      * @param album
      */
     public void addTopAlbum(final String album) {
+        addTopAlbum(album, 1);
+    }
+
+    /**
+     * Adds an album to the top albums map several times
+     * @param album
+     * @param count
+     */
+    public void addTopAlbum(final String album, final int count) {
         topAlbums.putIfAbsent(album, 0);
-        topAlbums.put(album, topAlbums.get(album) + 1);
+        topAlbums.put(album, topAlbums.get(album) + count);
     }
 
     /**
@@ -66,8 +103,17 @@ public class UserStats {
      * @param episode
      */
     public void addTopEpisode(final String episode) {
+        addTopEpisode(episode, 1);
+    }
+
+    /**
+     * Adds an episode to the top episodes map several times
+     * @param episode
+     * @param count
+     */
+    public void addTopEpisode(final String episode, final int count) {
         topEpisodes.putIfAbsent(episode, 0);
-        topEpisodes.put(episode, topEpisodes.get(episode) + 1);
+        topEpisodes.put(episode, topEpisodes.get(episode) + count);
     }
 
     /**
@@ -0,0 +1,77 @@
+package app.audio;
+
+import app.audio.Files.AudioFile;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every audio file that was ever listened to a small int id, so listening histories
+ * can be stored as plain int arrays. Ids are never reused, files removed from the platform
+ * keep theirs because old histories still point to them.
+ */
+public final class AudioCatalog {
+    private final List<AudioFile> files = new ArrayList<>();
+    private final Map<AudioFile, Integer> ids = new IdentityHashMap<>();
+
+    /**
+     * Gets the id of an audio file, assigning a new one the first time the file is seen.
+     *
+     * @param audioFile the audio file
+     * @return the id
+     */
+    public int intern(final AudioFile audioFile) {
+        Integer id = ids.get(audioFile);
+        if (id == null) {
+            id = files.size();
+            files.add(audioFile);
+            ids.put(audioFile, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Gets the audio file with the given id.
+     *
+     * @param id the id
+     * @return the audio file
+     */
+    public AudioFile get(final int id) {
+        return files.get(id);
+    }
+
+    /**
+     * Writes the audio files to a snapshot, in the order of their ids.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(files.size());
+        files.forEach(out::writeReference);
+    }
+
+    /**
+     * Reads the audio files back from a snapshot, giving them the ids they had.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        clear();
+        for (int count = in.readInt(); count > 0; count--) {
+            intern((AudioFile) in.readReference());
+        }
+    }
+
+    /**
+     * Forgets every id.
+     */
+    public void clear() {
+        files.clear();
+        ids.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package app.audio;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-only snapshot of one of the catalogs of the platform, shared by every reader until
+ * the catalog changes. The snapshot is rebuilt once, on the first read after a change, so
+ * reads don't allocate and a snapshot never changes under whoever holds it.
+ *
+ * @param <T> the type of the entries of the catalog
+ */
+public final class CatalogView<T> {
+    private final Supplier<List<T>> source;
+    private volatile List<T> snapshot;
+
+    /**
+     * Instantiates a new Catalog view.
+     *
+     * @param source gives the current entries of the catalog
+     */
+    public CatalogView(final Supplier<List<T>> source) {
+        this.source = source;
+    }
+
+    /**
+     * Gets the snapshot of the catalog.
+     *
+     * @return the entries, as an unmodifiable list
+     */
+    public List<T> get() {
+        List<T> current = snapshot;
+        if (current == null) {
+            current = List.copyOf(source.get());
+            snapshot = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * Drops the snapshot, after the catalog changed.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+}
@@ -37,6 +37,16 @@ public abstract class AudioCollection extends LibraryEntry {
      */
     public abstract AudioFile getTrackByIndex(int index);
 
+    /**
+     * Gets the version of the tracks of the collection, which changes whenever a track is
+     * added or removed, so what is computed from the tracks can be kept until then.
+     *
+     * @return the version, always 0 for a collection whose tracks never change
+     */
+    public int getVersion() {
+        return 0;
+    }
+
     /**
      *
      * @param user the user
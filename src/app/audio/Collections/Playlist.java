@@ -3,19 +3,30 @@ package app.audio.Collections;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Song;
 import app.utils.Enums;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * The type Playlist.
+ * The type Playlist. The songs are kept in a {@link SongList}, so the player goes through
+ * them by index while checking for a song and removing it do not go through the list.
  */
 @Getter
 public final class Playlist extends AudioCollection {
-    private final ArrayList<Song> songs;
+    @Getter(AccessLevel.NONE)
+    private final SongList songs;
+    @Getter(AccessLevel.NONE)
+    private final List<Song> songsView;
+    @Setter
     private Enums.Visibility visibility;
+    @Setter
     private Integer followers;
     private int timestamp;
+    @Getter(AccessLevel.NONE)
+    private int version;
 
     /**
      * Instantiates a new Playlist.
@@ -36,12 +47,22 @@ public final class Playlist extends AudioCollection {
      */
     public Playlist(final String name, final String owner, final int timestamp) {
         super(name, owner);
-        this.songs = new ArrayList<>();
+        this.songs = new SongList();
+        this.songsView = Collections.unmodifiableList(songs);
         this.visibility = Enums.Visibility.PUBLIC;
         this.followers = 0;
         this.timestamp = timestamp;
     }
 
+    /**
+     * Gets the songs.
+     *
+     * @return the songs, in order; they are changed through addSong and removeSong
+     */
+    public List<Song> getSongs() {
+        return songsView;
+    }
+
     /**
      * Contains song boolean.
      *
@@ -58,7 +79,8 @@ public final class Playlist extends AudioCollection {
      * @param song the song
      */
     public void addSong(final Song song) {
-        songs.add(song);
+        songs.append(song);
+        version++;
     }
 
     /**
@@ -67,7 +89,9 @@ public final class Playlist extends AudioCollection {
      * @param song the song
      */
     public void removeSong(final Song song) {
-        songs.remove(song);
+        if (songs.removeFirst(song)) {
+            version++;
+        }
     }
 
     /**
@@ -76,7 +100,8 @@ public final class Playlist extends AudioCollection {
      * @param index the index
      */
     public void removeSong(final int index) {
-        songs.remove(index);
+        songs.removeAt(index);
+        version++;
     }
 
     /**
@@ -104,6 +129,11 @@ public final class Playlist extends AudioCollection {
         followers--;
     }
 
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
     @Override
     public int getNumberOfTracks() {
         return songs.size();
@@ -0,0 +1,172 @@
+package app.audio.Collections;
+
+import app.audio.Files.Song;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The songs of a playlist, in order. A removed song leaves an empty slot behind instead of
+ * moving the songs after it, and a tree of counts over the slots finds the song at an
+ * index by skipping the empty ones, so adding, removing and reading a song by index take
+ * logarithmic time at most. The slots of every song are kept too, so a song is found
+ * without going through the list.
+ *
+ * <p>The list is compacted once the empty slots make up half of it.
+ */
+final class SongList extends AbstractList<Song> {
+    private final ArrayList<Song> slots = new ArrayList<>();
+    private final Map<Song, Deque<Integer>> positions = new IdentityHashMap<>();
+    private int[] counts = new int[1];
+    private int removed;
+
+    /**
+     * Adds a song at the end of the list.
+     *
+     * @param song the song
+     */
+    void append(final Song song) {
+        slots.add(song);
+        positions.computeIfAbsent(song, key -> new ArrayDeque<>()).addLast(slots.size() - 1);
+
+        int node = slots.size();
+        if (node == counts.length) {
+            counts = Arrays.copyOf(counts, 2 * counts.length);
+        }
+        counts[node] = 1;
+        for (int child = 1; child < (node & -node); child <<= 1) {
+            counts[node] += counts[node - child];
+        }
+    }
+
+    /**
+     * Removes the first time a song is in the list.
+     *
+     * @param song the song
+     * @return whether the song was in the list
+     */
+    boolean removeFirst(final Song song) {
+        Deque<Integer> slotsOfSong = positions.get(song);
+        if (slotsOfSong == null) {
+            return false;
+        }
+
+        clear(song, slotsOfSong.peekFirst());
+        return true;
+    }
+
+    /**
+     * Removes the song at an index.
+     *
+     * @param index the index
+     * @return the song
+     */
+    Song removeAt(final int index) {
+        Song song = get(index);
+        clear(song, slotOf(index));
+        return song;
+    }
+
+    @Override
+    public Song get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        return slots.get(slotOf(index));
+    }
+
+    @Override
+    public boolean contains(final Object song) {
+        return positions.containsKey(song);
+    }
+
+    @Override
+    public int size() {
+        return slots.size() - removed;
+    }
+
+    @Override
+    public Iterator<Song> iterator() {
+        return new Iterator<>() {
+            private int slot = skip(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < slots.size();
+            }
+
+            @Override
+            public Song next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Song song = slots.get(slot);
+                slot = skip(slot + 1);
+                return song;
+            }
+        };
+    }
+
+    private int skip(final int from) {
+        int slot = from;
+        while (slot < slots.size() && slots.get(slot) == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Walks down the tree of counts to the slot holding the song at an index.
+     */
+    private int slotOf(final int index) {
+        int node = 0;
+        int left = index + 1;
+        for (int step = Integer.highestOneBit(slots.size()); step > 0; step >>= 1) {
+            if (node + step <= slots.size() && counts[node + step] < left) {
+                node += step;
+                left -= counts[node];
+            }
+        }
+        return node;
+    }
+
+    private void clear(final Song song, final int slot) {
+        Deque<Integer> slotsOfSong = positions.get(song);
+        slotsOfSong.removeFirstOccurrence(slot);
+        if (slotsOfSong.isEmpty()) {
+            positions.remove(song);
+        }
+
+        slots.set(slot, null);
+        removed++;
+        for (int node = slot + 1; node <= slots.size(); node += node & -node) {
+            counts[node]--;
+        }
+
+        if (2 * removed >= slots.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        ArrayList<Song> kept = new ArrayList<>(size());
+        for (Song song : this) {
+            kept.add(song);
+        }
+
+        slots.clear();
+        positions.clear();
+        counts = new int[1];
+        removed = 0;
+        kept.forEach(this::append);
+    }
+}
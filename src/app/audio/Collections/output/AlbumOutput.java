@@ -1,15 +1,18 @@
 package app.audio.Collections.output;
 
 import app.audio.Collections.Album;
+import app.commandHandle.OutputWritable;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
  * The type Album output.
  */
 @Getter
-public class AlbumOutput {
+public class AlbumOutput implements OutputWritable {
     private final String name;
     private final ArrayList<String> songs;
 
@@ -25,4 +28,14 @@ public class AlbumOutput {
             songs.add(album.getSongs().get(i).getName());
         }
     }
+
+    @Override
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStringField("name", name);
+        generator.writeArrayFieldStart("songs");
+        for (String song : songs) {
+            generator.writeString(song);
+        }
+        generator.writeEndArray();
+    }
 }
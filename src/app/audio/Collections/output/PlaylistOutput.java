@@ -1,13 +1,16 @@
 package app.audio.Collections.output;
 
 import app.audio.Collections.Playlist;
+import app.commandHandle.OutputWritable;
 import app.utils.Enums;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 @Getter
-public class PlaylistOutput {
+public class PlaylistOutput implements OutputWritable {
     private final String name;
     private final ArrayList<String> songs;
     private final String visibility;
@@ -25,4 +28,16 @@ public class PlaylistOutput {
         this.followers = playlist.getFollowers();
     }
 
+    @Override
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStringField("name", name);
+        generator.writeArrayFieldStart("songs");
+        for (String song : songs) {
+            generator.writeString(song);
+        }
+        generator.writeEndArray();
+        generator.writeStringField("visibility", visibility);
+        generator.writeNumberField("followers", followers);
+    }
+
 }
@@ -1,12 +1,15 @@
 package app.audio.Collections.output;
 
 import app.audio.Collections.Podcast;
+import app.commandHandle.OutputWritable;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 @Getter
-public class PodcastOutput {
+public class PodcastOutput implements OutputWritable {
     private final String name;
     private final ArrayList<String> episodes;
 
@@ -17,4 +20,14 @@ public class PodcastOutput {
             episodes.add(podcast.getEpisodes().get(i).getName());
         }
     }
+
+    @Override
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStringField("name", name);
+        generator.writeArrayFieldStart("episodes");
+        for (String episode : episodes) {
+            generator.writeString(episode);
+        }
+        generator.writeEndArray();
+    }
 }
@@ -1,6 +1,7 @@
 package app.audio.Files;
 
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,11 +17,16 @@ public final class Song extends AudioFile {
     private final String genre;
     private final Integer releaseYear;
     private final String artist;
+    private final int genreId;
+    @Setter
     private Integer likes;
+    @Setter
     private Double income;
 
     /**
-     * Instantiates a new Song.
+     * Instantiates a new Song. The album, tags, genre and artist are interned, so the songs
+     * of a catalog share a single instance of each, and the genre gets a dense id, or -1 if
+     * there is none.
      *
      * @param name        the name
      * @param duration    the duration
@@ -30,21 +36,45 @@ public final class Song extends AudioFile {
      * @param genre       the genre
      * @param releaseYear the release year
      * @param artist      the artist
+     * @param symbols     the strings of the catalog the song is part of
      */
     public Song(final String name, final Integer duration, final String album,
                 final ArrayList<String> tags, final String lyrics, final String genre,
-                final Integer releaseYear, final String artist) {
+                final Integer releaseYear, final String artist, final SongSymbols symbols) {
         super(name, duration);
-        this.album = album;
-        this.tags = tags;
+        this.album = symbols.intern(album);
+        this.tags = internAll(tags, symbols);
         this.lyrics = lyrics;
-        this.genre = genre;
+        this.genre = symbols.internGenre(genre);
+        this.genreId = symbols.genreId(genre);
         this.releaseYear = releaseYear;
-        this.artist = artist;
+        this.artist = symbols.intern(artist);
         this.likes = 0;
         this.income = 0.0;
     }
 
+    /**
+     * Instantiates a copy of a song for another catalog, with no likes and no income.
+     *
+     * @param song    the song
+     * @param symbols the strings of the catalog the copy is part of
+     */
+    public Song(final Song song, final SongSymbols symbols) {
+        this(song.getName(), song.getDuration(), song.album, song.tags, song.lyrics,
+                song.genre, song.releaseYear, song.artist, symbols);
+    }
+
+    private static ArrayList<String> internAll(final ArrayList<String> strings,
+                                               final SongSymbols symbols) {
+        if (strings == null) {
+            return null;
+        }
+
+        ArrayList<String> interned = new ArrayList<>(strings.size());
+        strings.forEach(string -> interned.add(symbols.intern(string)));
+        return interned;
+    }
+
     @Override
     public String getOwner() {
         return artist;
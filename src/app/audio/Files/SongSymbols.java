@@ -0,0 +1,26 @@
+package app.audio.Files;
+
+import app.utils.SymbolTable;
+
+/**
+ * The strings shared by the songs of one catalog: the genres, which get dense ids, and the
+ * albums, artists and tags. The Library and every Admin have their own, so the genre ids
+ * index the structures of the Admin the songs belong to, and nothing is kept once the
+ * catalog is gone.
+ */
+public final class SongSymbols {
+    private final SymbolTable genres = new SymbolTable();
+    private final SymbolTable metadata = new SymbolTable();
+
+    String intern(final String value) {
+        return metadata.intern(value);
+    }
+
+    String internGenre(final String genre) {
+        return genres.intern(genre);
+    }
+
+    int genreId(final String genre) {
+        return genre == null ? -1 : genres.id(genre);
+    }
+}
@@ -0,0 +1,71 @@
+package app.audio;
+
+import app.audio.Collections.Podcast;
+import app.audio.Files.Episode;
+import app.audio.Files.Song;
+import app.audio.Files.SongSymbols;
+import fileio.input.EpisodeInput;
+import fileio.input.LibraryInput;
+import fileio.input.PodcastInput;
+import fileio.input.SongInput;
+import fileio.input.UserInput;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The library every run starts from, built once from the parsed input and shared by all
+ * the runs of the process. Podcasts and episodes never change, so every run shares them.
+ * Songs keep their likes and income, so each run gets its own copies of the songs, made
+ * from prototypes that are never handed out.
+ */
+public final class Library {
+    @Getter
+    private final List<UserInput> users;
+    private final List<Song> songs = new ArrayList<>();
+    private final SongSymbols symbols = new SongSymbols();
+    @Getter
+    private final List<Podcast> podcasts = new ArrayList<>();
+
+    /**
+     * Builds the library.
+     *
+     * @param library the parsed library
+     */
+    public Library(final LibraryInput library) {
+        users = List.copyOf(library.getUsers());
+
+        for (SongInput songInput : library.getSongs()) {
+            songs.add(new Song(songInput.getName(), songInput.getDuration(),
+                    songInput.getAlbum(), songInput.getTags(), songInput.getLyrics(),
+                    songInput.getGenre(), songInput.getReleaseYear(), songInput.getArtist(),
+                    symbols));
+        }
+
+        for (PodcastInput podcastInput : library.getPodcasts()) {
+            List<Episode> episodes = new ArrayList<>();
+            for (EpisodeInput episodeInput : podcastInput.getEpisodes()) {
+                episodes.add(new Episode(episodeInput.getName(),
+                        episodeInput.getDuration(),
+                        episodeInput.getDescription(),
+                        podcastInput.getOwner()));
+            }
+            podcasts.add(new Podcast(podcastInput.getName(), podcastInput.getOwner(),
+                    Collections.unmodifiableList(episodes)));
+        }
+    }
+
+    /**
+     * Gets fresh copies of the songs, with no likes and no income.
+     *
+     * @param copySymbols the strings of the catalog the copies are part of
+     * @return the songs
+     */
+    public List<Song> copySongs(final SongSymbols copySymbols) {
+        List<Song> copies = new ArrayList<>(songs.size());
+        songs.forEach(song -> copies.add(new Song(song, copySymbols)));
+        return copies;
+    }
+}
@@ -27,16 +27,6 @@ public abstract class LibraryEntry {
      */
     public abstract String getOwner();
 
-    /**
-     * Matches name boolean.
-     *
-     * @param nameFilter the name
-     * @return the boolean
-     */
-    public boolean matchesName(final String nameFilter) {
-        return getName().toLowerCase().startsWith(nameFilter.toLowerCase());
-    }
-
     /**
      * Matches album boolean.
      *
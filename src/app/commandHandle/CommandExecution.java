@@ -1,20 +1,46 @@
 package app.commandHandle;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import app.Admin;
 import fileio.input.CommandInput;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Class responsible for executing all commands.
+ * Class responsible for executing all commands. When it is given a command log, every
+ * command that can change the state is logged before it is run, and marked in the log if
+ * it throws.
  */
 @Getter
 public final class CommandExecution {
     private final Map<String, CommandTypes> commandMap = new HashMap<>();
+    private final CommandRunner runner;
+    @Getter(AccessLevel.NONE)
+    private final CommandLog log;
 
-    public CommandExecution() {
+    /**
+     * Instantiates a new Command execution.
+     * @param admin the state the commands are run against
+     */
+    public CommandExecution(final Admin admin) {
+        this(admin, null);
+    }
+
+    /**
+     * Instantiates a new Command execution that logs its commands.
+     * @param log the command log, whose Admin the commands are run against
+     */
+    public CommandExecution(final CommandLog log) {
+        this(log.getAdmin(), log);
+    }
+
+    private CommandExecution(final Admin admin, final CommandLog log) {
+        runner = new CommandRunner(admin);
+        this.log = log;
         addCommands();
     }
 
@@ -30,13 +56,37 @@ public final class CommandExecution {
      * @param commandInput
      * @return the result of the command
      */
-    public ObjectNode executeCommand(final CommandInput commandInput) {
+    public CommandResult executeCommand(final CommandInput commandInput) {
         CommandTypes command = commandMap.get(commandInput.getCommand());
-        if (command != null) {
-            return command.execute(commandInput);
+        if (command == null) {
+            return null;
+        } else if (log == null || !command.isMutating()) {
+            return command.execute(runner, commandInput);
+        }
+
+        try {
+            log.append(commandInput);
+            CommandResult result;
+            try {
+                result = command.execute(runner, commandInput);
+            } catch (RuntimeException e) {
+                log.appendFailure();
+                throw e;
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        return null;
+    /**
+     * Tells if a command can change the state, and so is logged.
+     * @param commandInput the command
+     * @return if it is a known command that can change the state
+     */
+    public boolean isMutating(final CommandInput commandInput) {
+        CommandTypes command = commandMap.get(commandInput.getCommand());
+        return command != null && command.isMutating();
     }
 
     private String enumNameToCamelCase(final String str) {
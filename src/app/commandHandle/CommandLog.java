@@ -0,0 +1,547 @@
+package app.commandHandle;
+
+import app.Admin;
+import app.AdminSnapshot;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import fileio.input.CommandInput;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of the commands that change the state of an Admin, so a long-lived
+ * process can get its state back after a crash. Every command is numbered and appended to
+ * the log before it is run. Appends are group committed: they are kept in memory and
+ * written and synced together, once "commandLog.batchSize" of them are waiting or, from a
+ * background thread, "commandLog.batchMillis" milliseconds after the last sync, whichever
+ * comes first. Every "commandLog.checkpointInterval" commands, before the next one is
+ * appended, the whole state is saved to a checkpoint snapshot and the log starts a new
+ * segment, so recovery loads the latest checkpoint and only runs the commands logged after
+ * it.
+ *
+ * <p>The results of all the commands, the ones that don't change the state included, are
+ * kept with the log, in the order they were produced, so the output of a run that crashed
+ * can be written in full once it is over. They are synced with the batches, before the
+ * commands, so the log never holds a command without the results of the ones before it;
+ * only the result of the last command may be missing, and running it again on recovery
+ * gives it back.
+ *
+ * <p>The directory holds one checkpoint, "checkpoint-N.snap", holding the state after the
+ * first N commands, the segments, "commands-N.log", whose first command is command N, and
+ * the results, "results.log". Every command and result is framed by its length and
+ * checksum, so one cut short by a crash is told apart and dropped when the log is opened
+ * again. A command that throws when it is run is followed by an empty frame, so recovery
+ * knows which commands are expected to fail and stops if any other command does. A result
+ * is empty for a command with no output.
+ */
+public final class CommandLog implements AutoCloseable {
+    public static final String BATCH_SIZE_PROPERTY = "commandLog.batchSize";
+    public static final String BATCH_MILLIS_PROPERTY = "commandLog.batchMillis";
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "commandLog.checkpointInterval";
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final int DEFAULT_BATCH_MILLIS = 5;
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".snap";
+    private static final String SEGMENT_PREFIX = "commands-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String RESULTS_FILE = "results.log";
+    private static final String SEQUENCE_FORMAT = "%020d";
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+
+    private final Path directory;
+    @Getter
+    private final Admin admin;
+    private final ObjectWriter writer = OutputBuilder.getMapper().writerFor(CommandInput.class);
+    private final int batchSize = Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE);
+    private final int checkpointInterval = Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY,
+            DEFAULT_CHECKPOINT_INTERVAL);
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream pendingResults = new ByteArrayOutputStream();
+    private final ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+    private final CRC32 checksum = new CRC32();
+    private final Thread flusher;
+    /**
+     * The number of commands the state of the Admin held when the log was opened, the
+     * ones before the checkpoint and the ones run again after it.
+     */
+    @Getter
+    private final long recovered;
+    /**
+     * The number of commands run again when the log was opened that threw, as they did
+     * when they were logged.
+     */
+    @Getter
+    private final long recoveredFailures;
+    /**
+     * The number of results kept with the log when it was opened.
+     */
+    @Getter
+    private final long storedResults;
+    private final Replay replay;
+    private volatile IOException failure;
+    private volatile boolean closing;
+    private FileChannel segment;
+    private OutputStream segmentStream;
+    private FileChannel results;
+    private OutputStream resultsStream;
+    private long nextSequence;
+    private long checkpointSequence;
+    private int pendingCount;
+
+    private CommandLog(final Path directory, final Admin admin, final long checkpointSequence,
+                       final Replay replay, final long storedResults) {
+        this.directory = directory;
+        this.admin = admin;
+        this.checkpointSequence = checkpointSequence;
+        this.nextSequence = replay.next;
+        this.recovered = replay.next;
+        this.recoveredFailures = replay.failures;
+        this.storedResults = storedResults;
+        this.replay = replay;
+
+        int batchMillis = Integer.getInteger(BATCH_MILLIS_PROPERTY, DEFAULT_BATCH_MILLIS);
+        if (batchMillis > 0) {
+            flusher = new Thread(() -> flushPeriodically(batchMillis), "command-log-flusher");
+            flusher.setDaemon(true);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Opens the log kept in a directory. If the directory holds a checkpoint, the Admin is
+     * loaded from it and the commands logged after it are run again, without being logged
+     * a second time, and the results kept are counted. Otherwise the log starts from a new
+     * Admin, and its state is saved as the first checkpoint.
+     * @param directory the directory of the log, made if it doesn't exist
+     * @param initial makes the Admin the log starts from, when there is no checkpoint yet
+     * @return the log, ready to take the next command
+     * @throws IOException if the log can't be read or written, or a command run again
+     * doesn't succeed or fail the way it did when it was logged
+     */
+    public static CommandLog open(final Path directory, final Supplier<Admin> initial)
+            throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> checkpoints = list(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        TreeMap<Long, Path> segments = list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+
+        Path resultsPath = directory.resolve(RESULTS_FILE);
+        CommandLog log;
+        if (checkpoints.isEmpty()) {
+            Files.deleteIfExists(resultsPath);
+            log = new CommandLog(directory, initial.get(), 0, new Replay(), 0);
+            log.openResults(resultsPath);
+            log.checkpoint();
+        } else {
+            long checkpoint = checkpoints.lastKey();
+            Admin admin = AdminSnapshot.load(checkpoints.lastEntry().getValue());
+            Replay replay = replay(admin, checkpoint, segments);
+            long[] storedResults = new long[1];
+            if (Files.exists(resultsPath)) {
+                long valid = read(resultsPath, result -> storedResults[0]++);
+                truncate(resultsPath, valid);
+            }
+
+            log = new CommandLog(directory, admin, checkpoint, replay, storedResults[0]);
+            log.openResults(resultsPath);
+            log.openSegment(segments.isEmpty() ? log.segmentPath(replay.next)
+                    : segments.lastEntry().getValue());
+            if (replay.unmarkedFailure) {
+                log.appendFailure();
+                log.flush();
+            }
+        }
+
+        if (log.flusher != null) {
+            log.flusher.start();
+        }
+
+        return log;
+    }
+
+    /**
+     * Appends a command to the log. It is synced with the next batch.
+     * @param command the command, appended before it is run
+     * @throws IOException if the batch the command completes can't be written, or an
+     * earlier batch couldn't be
+     */
+    public synchronized void append(final CommandInput command) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (nextSequence - checkpointSequence >= checkpointInterval) {
+            checkpoint();
+        }
+        appendFrame(pending, writer.writeValueAsBytes(command));
+        nextSequence++;
+    }
+
+    /**
+     * Marks the command appended last as one that threw when it was run, so recovery
+     * expects it to throw again.
+     * @throws IOException if the batch the mark completes can't be written, or an earlier
+     * batch couldn't be
+     */
+    public synchronized void appendFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        appendFrame(pending, new byte[0]);
+    }
+
+    /**
+     * Keeps the result of the next command of the run, whether it changes the state or
+     * not. It is synced with the next batch.
+     * @param result the result, null if the command has no output
+     * @throws IOException if the batch the result completes can't be written, or an
+     * earlier batch couldn't be
+     */
+    public synchronized void appendResult(final CommandResult result) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        appendFrame(pendingResults, result == null ? new byte[0] : result.toJson());
+    }
+
+    /**
+     * Gets the result of the last command recovered. Its result is the only one that may
+     * not have been kept before the crash, the command is then the last one run again.
+     * @return the result, null if the command has no output or threw
+     * @throws IOException if no command was run again when the log was opened
+     */
+    public CommandResult getLastRecoveredResult() throws IOException {
+        if (!replay.ran) {
+            throw new IOException("The result of command " + (recovered - 1)
+                    + " is missing from the command log in " + directory);
+        }
+
+        return replay.lastResult;
+    }
+
+    /**
+     * Writes the results kept so far, in the order they were produced, after syncing the
+     * ones still waiting.
+     * @param outputs the writer of the output file
+     * @throws IOException if the results can't be read or written
+     */
+    public synchronized void writeResults(final ResultWriter outputs) throws IOException {
+        flush();
+        read(directory.resolve(RESULTS_FILE), result -> {
+            if (result.length == 0) {
+                outputs.write((CommandResult) null);
+            } else {
+                outputs.write(result);
+            }
+        });
+    }
+
+    /**
+     * Writes and syncs the commands appended since the last batch.
+     * @throws IOException if they can't be written
+     */
+    public synchronized void flush() throws IOException {
+        if (pendingCount == 0) {
+            return;
+        }
+
+        pendingResults.writeTo(resultsStream);
+        results.force(false);
+        pendingResults.reset();
+        pending.writeTo(segmentStream);
+        segment.force(false);
+        pending.reset();
+        pendingCount = 0;
+    }
+
+    /**
+     * Saves the state of the Admin to a new checkpoint and starts a new segment. The older
+     * checkpoint and segments are deleted once the new checkpoint is in place.
+     * @throws IOException if the checkpoint can't be written
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (segment != null) {
+            flush();
+            segment.close();
+        }
+
+        Path checkpoint = checkpointPath(nextSequence);
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + TEMPORARY_SUFFIX);
+        AdminSnapshot.save(admin, temporary);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE);
+
+        checkpointSequence = nextSequence;
+        openSegment(segmentPath(nextSequence));
+        for (Path old : list(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)
+                .headMap(checkpointSequence).values()) {
+            Files.delete(old);
+        }
+        for (Path old : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)
+                .headMap(checkpointSequence).values()) {
+            Files.delete(old);
+        }
+    }
+
+    /**
+     * Stops the background syncs, syncs what is left and closes the current segment.
+     * @throws IOException if the last batch can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            synchronized (this) {
+                closing = true;
+                notifyAll();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this) {
+            flush();
+            segment.close();
+            results.close();
+        }
+    }
+
+    /**
+     * Deletes a log and its directory, once the run it was kept for is over and its output
+     * written. The log must be closed.
+     * @param directory the directory of the log
+     * @throws IOException if a file can't be deleted
+     */
+    public static void delete(final Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Syncs in the background until the log is closed. The thread is told to stop through
+     * a flag rather than interrupted, since an interrupt that lands in the middle of a
+     * write or sync would close the segment under the last batch.
+     */
+    private synchronized void flushPeriodically(final int batchMillis) {
+        try {
+            while (!closing) {
+                wait(batchMillis);
+                if (!closing) {
+                    flush();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void appendFrame(final ByteArrayOutputStream to, final byte[] bytes)
+            throws IOException {
+        checksum.reset();
+        checksum.update(bytes);
+        frame.clear();
+        frame.putInt(bytes.length).putInt((int) checksum.getValue());
+        to.write(frame.array());
+        to.write(bytes);
+
+        if (++pendingCount >= batchSize) {
+            flush();
+        }
+    }
+
+    private void openSegment(final Path path) throws IOException {
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentStream = Channels.newOutputStream(segment);
+    }
+
+    private void openResults(final Path path) throws IOException {
+        results = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        resultsStream = Channels.newOutputStream(results);
+    }
+
+    private Path checkpointPath(final long sequence) {
+        return directory.resolve(CHECKPOINT_PREFIX + SEQUENCE_FORMAT.formatted(sequence)
+                + CHECKPOINT_SUFFIX);
+    }
+
+    private Path segmentPath(final long sequence) {
+        return directory.resolve(SEGMENT_PREFIX + SEQUENCE_FORMAT.formatted(sequence)
+                + SEGMENT_SUFFIX);
+    }
+
+    private static TreeMap<Long, Path> list(final Path directory, final String prefix,
+                                            final String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(prefix.length(),
+                        name.length() - suffix.length())), file);
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Runs again the commands logged after a checkpoint. A command cut short by a crash can
+     * only be at the end of the last segment, it is cut off from the file. A command has to
+     * throw again exactly when it is marked as having thrown, except the very last one,
+     * whose mark may have been lost in the crash and is then written back.
+     */
+    private static Replay replay(final Admin admin, final long checkpoint,
+                                 final TreeMap<Long, Path> segments) throws IOException {
+        CommandExecution execution = new CommandExecution(admin);
+        ObjectReader reader = OutputBuilder.getMapper().readerFor(CommandInput.class);
+        Replay replay = new Replay();
+        replay.next = checkpoint;
+
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            long sequence = entry.getKey();
+            boolean lastSegment = entry.getKey().equals(segments.lastKey());
+            List<byte[]> frames = new ArrayList<>();
+            long valid = read(entry.getValue(), frames::add);
+            if (valid < Files.size(entry.getValue())) {
+                if (!lastSegment) {
+                    throw new IOException("Corrupt command log segment: " + entry.getValue());
+                }
+                truncate(entry.getValue(), valid);
+            }
+
+            for (int i = 0; i < frames.size(); i++) {
+                if (frames.get(i).length == 0) {
+                    throw new IOException("Failure mark with no command before it in "
+                            + entry.getValue());
+                }
+                boolean markedFailed = i + 1 < frames.size() && frames.get(i + 1).length == 0;
+                boolean lastFrame = lastSegment && i + 1 == frames.size();
+                byte[] bytes = frames.get(i);
+                long current = sequence++;
+                if (markedFailed) {
+                    i++;
+                }
+                if (current < checkpoint) {
+                    continue;
+                }
+
+                CommandInput command = reader.readValue(bytes);
+                admin.updateTimestamp(command.getTimestamp());
+                replay.ran = true;
+                replay.lastResult = null;
+                try {
+                    replay.lastResult = execution.executeCommand(command);
+                } catch (RuntimeException e) {
+                    if (!markedFailed && !lastFrame) {
+                        throw new IOException("Command " + current
+                                + " threw when run again but ran when it was logged", e);
+                    }
+                    replay.unmarkedFailure = !markedFailed;
+                    replay.failures++;
+                    continue;
+                }
+                if (markedFailed) {
+                    throw new IOException("Command " + current
+                            + " ran when run again but threw when it was logged");
+                }
+            }
+            replay.next = Math.max(replay.next, sequence);
+        }
+
+        return replay;
+    }
+
+    /**
+     * Reads the frames of a segment, commands and failure marks, or of the results, up to
+     * the first one that is cut short or whose checksum doesn't match.
+     * @return the length of the file that holds whole frames
+     */
+    private static long read(final Path path, final FrameReader frames) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= FRAME_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                return start;
+            }
+
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            checksum.reset();
+            checksum.update(bytes);
+            if ((int) checksum.getValue() != expected) {
+                return start;
+            }
+            frames.accept(bytes);
+        }
+
+        return buffer.position();
+    }
+
+    private static void truncate(final Path path, final long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+
+    /**
+     * Takes the frames read from a file, in order.
+     */
+    private interface FrameReader {
+        void accept(byte[] frame) throws IOException;
+    }
+
+    /**
+     * What running the logged commands again ended with.
+     */
+    private static final class Replay {
+        private long next;
+        private long failures;
+        private boolean unmarkedFailure;
+        private boolean ran;
+        private CommandResult lastResult;
+    }
+}
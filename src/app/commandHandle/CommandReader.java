@@ -0,0 +1,163 @@
+package app.commandHandle;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import fileio.input.CommandInput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads the commands of an input file one at a time from the token stream, so only the
+ * command being run is held in memory, whatever the size of the file. When the
+ * "input.readAhead" system property is set to a positive number, a background thread
+ * parses up to that many commands ahead, so parsing overlaps with running them.
+ */
+public final class CommandReader implements Iterator<CommandInput>, AutoCloseable {
+    public static final String READ_AHEAD_PROPERTY = "input.readAhead";
+    private static final CommandInput END = new CommandInput();
+
+    private final JsonParser parser;
+    private final BlockingQueue<CommandInput> window;
+    private final Thread reader;
+    private volatile Throwable failure;
+    private CommandInput next;
+    private boolean done;
+
+    /**
+     * Opens the input file.
+     * @param file the input file, holding an array of commands
+     * @throws IOException if the file can't be read
+     */
+    public CommandReader(final File file) throws IOException {
+        parser = OutputBuilder.getMapper().getFactory().createParser(file);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Expected an array of commands in " + file);
+        }
+
+        int readAhead = Integer.getInteger(READ_AHEAD_PROPERTY, 0);
+        if (readAhead > 0) {
+            window = new ArrayBlockingQueue<>(readAhead);
+            reader = new Thread(this::readAhead, "command-reader");
+            reader.setDaemon(true);
+            reader.start();
+        } else {
+            window = null;
+            reader = null;
+        }
+    }
+
+    /**
+     * @return if there are commands left
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            next = window == null ? parseNow() : takeParsed();
+            done = next == null;
+        }
+
+        return next != null;
+    }
+
+    /**
+     * @return the next command
+     */
+    @Override
+    public CommandInput next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        CommandInput command = next;
+        next = null;
+        return command;
+    }
+
+    /**
+     * Stops reading ahead and closes the file.
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.interrupt();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        parser.close();
+    }
+
+    private CommandInput parse() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        return parser.readValueAs(CommandInput.class);
+    }
+
+    private CommandInput parseNow() {
+        try {
+            return parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CommandInput takeParsed() {
+        try {
+            CommandInput command = window.take();
+            if (command != END) {
+                return command;
+            } else if (failure instanceof IOException e) {
+                throw new UncheckedIOException(e);
+            } else if (failure instanceof RuntimeException e) {
+                throw e;
+            } else if (failure instanceof Error e) {
+                throw e;
+            }
+
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+    }
+
+    /**
+     * Parses the commands ahead until the end of the file, the first failure or close().
+     * Unless the reader is closed, the end is always queued, after the failure is kept,
+     * so the commands being run never wait for a reader that is gone.
+     */
+    private void readAhead() {
+        boolean closed = false;
+        try {
+            for (CommandInput command = parse(); command != null; command = parse()) {
+                window.put(command);
+            }
+        } catch (InterruptedException e) {
+            closed = true;
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            if (!closed) {
+                try {
+                    window.put(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
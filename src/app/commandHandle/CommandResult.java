@@ -0,0 +1,58 @@
+package app.commandHandle;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The output of a command. The values it shows are taken when it is built, as a buffer of
+ * JSON tokens rather than a tree, so it can be written at any time after, however the
+ * state changed in between, and is streamed from the buffer to the output file.
+ */
+public final class CommandResult {
+    private final TokenBuffer tokens = new TokenBuffer(OutputBuilder.getMapper(), false);
+
+    CommandResult(final OutputBuilder<?> output) {
+        try {
+            output.writeTo(tokens);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the output as a JSON object.
+     * @param generator the generator of the output file
+     * @throws IOException if the output can't be written
+     */
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        tokens.serialize(generator);
+    }
+
+    /**
+     * @return the output as compact JSON, in UTF-8
+     */
+    byte[] toJson() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator generator = OutputBuilder.getMapper().getFactory()
+                .createGenerator(bytes)) {
+            writeTo(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the output as compact JSON
+     */
+    @Override
+    public String toString() {
+        return new String(toJson(), StandardCharsets.UTF_8);
+    }
+}
@@ -9,7 +9,6 @@ import app.notifications.Notification;
 import app.player.PlayerStats;
 import app.searchBar.filters.Filters;
 import app.user.*;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.CommandInput;
 
 import java.util.*;
@@ -18,9 +17,15 @@ import java.util.*;
  * The type Command runner.
  */
 public final class CommandRunner {
-    private static Admin admin = Admin.getInstance();
+    private final Admin admin;
 
-    private CommandRunner() {
+    /**
+     * Instantiates a new Command runner.
+     *
+     * @param admin the state the commands run against
+     */
+    public CommandRunner(final Admin admin) {
+        this.admin = admin;
     }
 
     /**
@@ -29,7 +34,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode search(final CommandInput commandInput) {
+    public CommandResult search(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Filters filters = new Filters(commandInput.getFilters());
         String type = commandInput.getType();
@@ -51,7 +56,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode select(final CommandInput commandInput) {
+    public CommandResult select(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
 
         String message = user.select(commandInput.getItemNumber());
@@ -64,7 +69,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode load(final CommandInput commandInput) {
+    public CommandResult load(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.load();
 
@@ -77,7 +82,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode playPause(final CommandInput commandInput) {
+    public CommandResult playPause(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.playPause();
 
@@ -90,7 +95,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode repeat(final CommandInput commandInput) {
+    public CommandResult repeat(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.repeat();
 
@@ -103,7 +108,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode shuffle(final CommandInput commandInput) {
+    public CommandResult shuffle(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         Integer seed = commandInput.getSeed();
         String message = user.shuffle(seed);
@@ -117,7 +122,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode forward(final CommandInput commandInput) {
+    public CommandResult forward(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.forward();
 
@@ -130,7 +135,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode backward(final CommandInput commandInput) {
+    public CommandResult backward(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.backward();
 
@@ -143,7 +148,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode like(final CommandInput commandInput) {
+    public CommandResult like(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.like();
 
@@ -156,7 +161,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode next(final CommandInput commandInput) {
+    public CommandResult next(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.next();
 
@@ -169,7 +174,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode prev(final CommandInput commandInput) {
+    public CommandResult prev(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.prev();
 
@@ -182,7 +187,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode createPlaylist(final CommandInput commandInput) {
+    public CommandResult createPlaylist(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.createPlaylist(commandInput.getPlaylistName(),
                 commandInput.getTimestamp());
@@ -196,7 +201,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addRemoveInPlaylist(final CommandInput commandInput) {
+    public CommandResult addRemoveInPlaylist(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.addRemoveInPlaylist(commandInput.getPlaylistId());
 
@@ -209,7 +214,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode switchVisibility(final CommandInput commandInput) {
+    public CommandResult switchVisibility(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.switchPlaylistVisibility(commandInput.getPlaylistId());
 
@@ -222,7 +227,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showPlaylists(final CommandInput commandInput) {
+    public CommandResult showPlaylists(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         ArrayList<PlaylistOutput> playlists = user.showPlaylists();
 
@@ -235,7 +240,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode follow(final CommandInput commandInput) {
+    public CommandResult follow(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.follow();
 
@@ -248,7 +253,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode status(final CommandInput commandInput) {
+    public CommandResult status(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         PlayerStats stats = user.getPlayerStats();
 
@@ -261,7 +266,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showLikedSongs(final CommandInput commandInput) {
+    public CommandResult showLikedSongs(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         ArrayList<String> songs = user.showPreferredSongs();
 
@@ -274,7 +279,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the preferred genre
      */
-    public static ObjectNode getPreferredGenre(final CommandInput commandInput) {
+    public CommandResult getPreferredGenre(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String preferredGenre = user.getPreferredGenre();
 
@@ -287,7 +292,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode switchConnectionStatus(final CommandInput commandInput) {
+    public CommandResult switchConnectionStatus(final CommandInput commandInput) {
         String message = admin.switchStatus(commandInput.getUsername());
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -298,7 +303,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addUser(final CommandInput commandInput) {
+    public CommandResult addUser(final CommandInput commandInput) {
         String message = admin.addNewUser(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -309,7 +314,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode deleteUser(final CommandInput commandInput) {
+    public CommandResult deleteUser(final CommandInput commandInput) {
         String message = admin.deleteUser(commandInput.getUsername());
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -320,7 +325,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addAlbum(final CommandInput commandInput) {
+    public CommandResult addAlbum(final CommandInput commandInput) {
         String message = admin.addAlbum(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -331,7 +336,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeAlbum(final CommandInput commandInput) {
+    public CommandResult removeAlbum(final CommandInput commandInput) {
         String message = admin.removeAlbum(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -342,7 +347,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showAlbums(final CommandInput commandInput) {
+    public CommandResult showAlbums(final CommandInput commandInput) {
         Artist artist = admin.getArtist(commandInput.getUsername());
         ArrayList<AlbumOutput> albums = artist.showAlbums();
 
@@ -355,7 +360,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addEvent(final CommandInput commandInput) {
+    public CommandResult addEvent(final CommandInput commandInput) {
         String message = admin.addEvent(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -366,7 +371,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeEvent(final CommandInput commandInput) {
+    public CommandResult removeEvent(final CommandInput commandInput) {
         String message = admin.removeEvent(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -377,7 +382,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addPodcast(final CommandInput commandInput) {
+    public CommandResult addPodcast(final CommandInput commandInput) {
         String message = admin.addPodcast(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -388,7 +393,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removePodcast(final CommandInput commandInput) {
+    public CommandResult removePodcast(final CommandInput commandInput) {
         String message = admin.removePodcast(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -399,7 +404,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode showPodcasts(final CommandInput commandInput) {
+    public CommandResult showPodcasts(final CommandInput commandInput) {
         Host host = admin.getHost(commandInput.getUsername());
         List<PodcastOutput> podcasts = host.getPodcasts().stream()
                 .map(PodcastOutput::new).toList();
@@ -413,7 +418,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addMerch(final CommandInput commandInput) {
+    public CommandResult addMerch(final CommandInput commandInput) {
         String message = admin.addMerch(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -424,7 +429,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode addAnnouncement(final CommandInput commandInput) {
+    public CommandResult addAnnouncement(final CommandInput commandInput) {
         String message = admin.addAnnouncement(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -435,7 +440,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode removeAnnouncement(final CommandInput commandInput) {
+    public CommandResult removeAnnouncement(final CommandInput commandInput) {
         String message = admin.removeAnnouncement(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
 
@@ -447,7 +452,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the online users
      */
-    public static ObjectNode getOnlineUsers(final CommandInput commandInput) {
+    public CommandResult getOnlineUsers(final CommandInput commandInput) {
         List<String> onlineUsers = admin.getOnlineUsers();
         return new OutputBuilder<String>(commandInput).withResult(onlineUsers).build();
     }
@@ -458,7 +463,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the all users
      */
-    public static ObjectNode getAllUsers(final CommandInput commandInput) {
+    public CommandResult getAllUsers(final CommandInput commandInput) {
         List<String> users = admin.getAllUsers();
         return new OutputBuilder<String>(commandInput).withResult(users).build();
     }
@@ -469,7 +474,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode changePage(final CommandInput commandInput) {
+    public CommandResult changePage(final CommandInput commandInput) {
         String message = admin.changePage(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).build();
     }
@@ -480,7 +485,7 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the object node
      */
-    public static ObjectNode printCurrentPage(final CommandInput commandInput) {
+    public CommandResult printCurrentPage(final CommandInput commandInput) {
         String message = admin.printCurrentPage(commandInput);
         return new OutputBuilder<>(commandInput).withMessage(message).withSwap(Boolean.TRUE)
                 .build();
@@ -492,8 +497,9 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 album list
      */
-    public static ObjectNode getTop5Albums(final CommandInput commandInput) {
-        List<String> albums = Analytics.getTop5AlbumList(admin.getArtists());
+    public CommandResult getTop5Albums(final CommandInput commandInput) {
+        List<String> albums = Analytics.getTop5AlbumList(
+                admin.getLeaderboards().getAlbums());
         return new OutputBuilder<String>(commandInput).withResult(albums).build();
     }
 
@@ -503,8 +509,9 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 artist list
      */
-    public static ObjectNode getTop5Artists(final CommandInput commandInput) {
-        List<String> artists = Analytics.getTop5ArtistList(admin.getArtists());
+    public CommandResult getTop5Artists(final CommandInput commandInput) {
+        List<String> artists = Analytics.getTop5ArtistList(
+                admin.getLeaderboards().getArtists());
         return new OutputBuilder<String>(commandInput).withResult(artists).build();
     }
 
@@ -514,8 +521,8 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 songs
      */
-    public static ObjectNode getTop5Songs(final CommandInput commandInput) {
-        List<String> songs = Analytics.getTop5Songs(admin.getSongs());
+    public CommandResult getTop5Songs(final CommandInput commandInput) {
+        List<String> songs = Analytics.getTop5Songs(admin.getLeaderboards().getSongs());
         return new OutputBuilder<String>(commandInput).withResult(songs).build();
     }
 
@@ -525,8 +532,9 @@ public final class CommandRunner {
      * @param commandInput the command input
      * @return the top 5 playlists
      */
-    public static ObjectNode getTop5Playlists(final CommandInput commandInput) {
-        List<String> playlists = Analytics.getTop5Playlists(admin.getPlaylists());
+    public CommandResult getTop5Playlists(final CommandInput commandInput) {
+        List<String> playlists = Analytics.getTop5Playlists(
+                admin.getLeaderboards().getPlaylists());
         return new OutputBuilder<String>(commandInput).withResult(playlists).build();
     }
 
@@ -535,7 +543,7 @@ public final class CommandRunner {
      * @param commandInput
      * @return
      */
-    public static ObjectNode previousPage(final CommandInput commandInput) {
+    public CommandResult previousPage(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.previousPage();
 
@@ -547,7 +555,7 @@ public final class CommandRunner {
      * @param commandInput
      * @return
      */
-    public static ObjectNode nextPage(final CommandInput commandInput) {
+    public CommandResult nextPage(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
         String message = user.nextPage();
 
@@ -559,7 +567,7 @@ public final class CommandRunner {
      * @param commandInput
      * @return
      */
-    public static ObjectNode subscribe(final CommandInput commandInput) {
+    public CommandResult subscribe(final CommandInput commandInput) {
         String message = admin.subscribe(commandInput);
 
         return new OutputBuilder<>(commandInput).withMessage(message).build();
@@ -570,10 +578,9 @@ public final class CommandRunner {
      * @param commandInput
      * @return
      */
-    public static ObjectNode getNotifications(final CommandInput commandInput) {
+    public CommandResult getNotifications(final CommandInput commandInput) {
         User user = admin.getUser(commandInput.getUsername());
-        List<Notification> notifications = new ArrayList<>(user.getNotifications());
-        user.getNotifications().clear();
+        List<Notification> notifications = user.getInbox().take();
 
         return new OutputBuilder<Notification>(commandInput)
                 .withResultFieldName("notifications")
@@ -585,7 +592,7 @@ public final class CommandRunner {
      * @param commandInput
      * @return
      */
-    public static ObjectNode wrapped(final CommandInput commandInput) {
+    public CommandResult wrapped(final CommandInput commandInput) {
         UserAbstract user = admin.getAbstractUser(commandInput.getUsername());
 
         if (user == null) {
@@ -595,9 +602,9 @@ public final class CommandRunner {
         if (user.userType().equals("user")) {
             return Analytics.wrappedUser((User) user, commandInput);
         } else if (user.userType().equals("artist")) {
-            return Analytics.wrappedArtist((Artist) user, admin.getUsers(), commandInput);
+            return Analytics.wrappedArtist((Artist) user, commandInput);
         } else if (user.userType().equals("host")) {
-            return Analytics.wrappedHost((Host) user, admin.getUsers(), commandInput);
+            return Analytics.wrappedHost((Host) user, commandInput);
         }
 
         throw new IllegalArgumentException("Invalid user type!");
@@ -608,7 +615,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode buyMerch(final CommandInput cmd) {
+    public CommandResult buyMerch(final CommandInput cmd) {
         String message = admin.buyMerch(cmd);
 
         return new OutputBuilder<>(cmd).withMessage(message).build();
@@ -619,7 +626,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode seeMerch(final CommandInput cmd) {
+    public CommandResult seeMerch(final CommandInput cmd) {
         User user = admin.getUser(cmd.getUsername());
         if (user == null) {
             return new OutputBuilder<>(cmd)
@@ -634,7 +641,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode buyPremium(final CommandInput cmd) {
+    public CommandResult buyPremium(final CommandInput cmd) {
         String message = admin.buyPremium(cmd);
 
         return new OutputBuilder<>(cmd).withMessage(message).build();
@@ -645,7 +652,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode cancelPremium(final CommandInput cmd) {
+    public CommandResult cancelPremium(final CommandInput cmd) {
         String message = admin.cancelPremium(cmd);
 
         return new OutputBuilder<>(cmd).withMessage(message).build();
@@ -656,7 +663,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode updateRecommendations(final CommandInput cmd) {
+    public CommandResult updateRecommendations(final CommandInput cmd) {
         String message = admin.updateRecommendations(cmd);
 
         return new OutputBuilder<>(cmd).withMessage(message).build();
@@ -667,7 +674,7 @@ public final class CommandRunner {
      * @param cmd
      * @return
      */
-    public static ObjectNode loadRecommendations(final CommandInput cmd) {
+    public CommandResult loadRecommendations(final CommandInput cmd) {
         String message = admin.loadRecommendations(cmd);
 
         return new OutputBuilder<>(cmd).withMessage(message).build();
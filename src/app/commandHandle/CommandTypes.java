@@ -1,323 +1,345 @@
 package app.commandHandle;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.CommandInput;
 
 /**
  * Enum that contains all the commands that can be executed.
  * Each command has a method that will be called when the command is executed.
+ * Commands that only read the state are marked as such.
  */
 public enum CommandTypes {
     SEARCH {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.search(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.search(command);
         }
     },
     SELECT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.select(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.select(command);
         }
     },
     LOAD {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.load(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.load(command);
         }
     },
     PLAY_PAUSE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.playPause(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.playPause(command);
         }
     },
     REPEAT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.repeat(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.repeat(command);
         }
     },
     SHUFFLE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.shuffle(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.shuffle(command);
         }
     },
     FORWARD {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.forward(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.forward(command);
         }
     },
     BACKWARD {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.backward(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.backward(command);
         }
     },
     LIKE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.like(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.like(command);
         }
     },
     NEXT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.next(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.next(command);
         }
     },
     PREV {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.prev(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.prev(command);
         }
     },
     CREATE_PLAYLIST {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.createPlaylist(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.createPlaylist(command);
         }
     },
     ADD_REMOVE_IN_PLAYLIST {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addRemoveInPlaylist(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addRemoveInPlaylist(command);
         }
     },
     SWITCH_VISIBILITY {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.switchVisibility(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.switchVisibility(command);
         }
     },
     FOLLOW {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.follow(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.follow(command);
         }
     },
-    SHOW_PLAYLISTS {
+    SHOW_PLAYLISTS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.showPlaylists(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.showPlaylists(command);
         }
     },
     STATUS {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.status(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.status(command);
         }
     },
-    SHOW_PREFERRED_SONGS {
+    SHOW_PREFERRED_SONGS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.showLikedSongs(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.showLikedSongs(command);
         }
     },
-    GET_TOP5_SONGS {
+    GET_TOP5_SONGS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getTop5Songs(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getTop5Songs(command);
         }
     },
-    GET_TOP5_PLAYLISTS {
+    GET_TOP5_PLAYLISTS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getTop5Playlists(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getTop5Playlists(command);
         }
     },
     CHANGE_PAGE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.changePage(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.changePage(command);
         }
     },
-    PRINT_CURRENT_PAGE {
+    PRINT_CURRENT_PAGE(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.printCurrentPage(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.printCurrentPage(command);
         }
     },
     ADD_USER {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addUser(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addUser(command);
         }
     },
     DELETE_USER {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.deleteUser(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.deleteUser(command);
         }
     },
-    SHOW_ALBUMS {
+    SHOW_ALBUMS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.showAlbums(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.showAlbums(command);
         }
     },
-    SHOW_PODCASTS {
+    SHOW_PODCASTS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.showPodcasts(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.showPodcasts(command);
         }
     },
     ADD_ALBUM {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addAlbum(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addAlbum(command);
         }
     },
     REMOVE_ALBUM {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.removeAlbum(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.removeAlbum(command);
         }
     },
     ADD_EVENT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addEvent(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addEvent(command);
         }
     },
     REMOVE_EVENT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.removeEvent(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.removeEvent(command);
         }
     },
     ADD_MERCH {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addMerch(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addMerch(command);
         }
     },
     ADD_PODCAST {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addPodcast(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addPodcast(command);
         }
     },
     REMOVE_PODCAST {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.removePodcast(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.removePodcast(command);
         }
     },
     ADD_ANNOUNCEMENT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.addAnnouncement(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.addAnnouncement(command);
         }
     },
     REMOVE_ANNOUNCEMENT {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.removeAnnouncement(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.removeAnnouncement(command);
         }
     },
     SWITCH_CONNECTION_STATUS {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.switchConnectionStatus(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.switchConnectionStatus(command);
         }
     },
-    GET_TOP5_ARTISTS {
+    GET_TOP5_ARTISTS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getTop5Artists(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getTop5Artists(command);
         }
     },
-    GET_TOP5_ALBUMS {
+    GET_TOP5_ALBUMS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getTop5Albums(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getTop5Albums(command);
         }
     },
-    GET_ALL_USERS {
+    GET_ALL_USERS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getAllUsers(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getAllUsers(command);
         }
     },
-    GET_ONLINE_USERS {
+    GET_ONLINE_USERS(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getOnlineUsers(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getOnlineUsers(command);
         }
     },
     NEXT_PAGE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.nextPage(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.nextPage(command);
         }
     },
     PREVIOUS_PAGE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.previousPage(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.previousPage(command);
         }
     },
     SUBSCRIBE {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.subscribe(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.subscribe(command);
         }
     },
     GET_NOTIFICATIONS {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.getNotifications(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.getNotifications(command);
         }
     },
     WRAPPED {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.wrapped(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.wrapped(command);
         }
     },
     BUY_MERCH {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.buyMerch(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.buyMerch(command);
         }
     },
-    SEE_MERCH {
+    SEE_MERCH(false) {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.seeMerch(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.seeMerch(command);
         }
     },
     BUY_PREMIUM {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.buyPremium(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.buyPremium(command);
         }
     },
     CANCEL_PREMIUM {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.cancelPremium(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.cancelPremium(command);
         }
     },
     UPDATE_RECOMMENDATIONS {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.updateRecommendations(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.updateRecommendations(command);
         }
     },
     LOAD_RECOMMENDATIONS {
         @Override
-        public ObjectNode execute(final CommandInput command) {
-            return CommandRunner.loadRecommendations(command);
+        public CommandResult execute(final CommandRunner runner, final CommandInput command) {
+            return runner.loadRecommendations(command);
         }
     };
 
+    private final boolean mutating;
+
+    CommandTypes() {
+        this(true);
+    }
+
+    CommandTypes(final boolean mutating) {
+        this.mutating = mutating;
+    }
+
+    /**
+     * Tells if the command can change the state it is run against. Only these commands are
+     * written to the command log, the others are never run again on recovery. A command
+     * that syncs a player counts as one: the player may commit its history or stop.
+     * @return if the command can change the state
+     */
+    public boolean isMutating() {
+        return mutating;
+    }
+
     /**
      * Abstract method that will be implemented by each command.
+     * @param runner the runner of the state the command is run against
+     * @param command the command
      * @return the result of the command
      */
-    public abstract ObjectNode execute(CommandInput command);
+    public abstract CommandResult execute(CommandRunner runner, CommandInput command);
 }
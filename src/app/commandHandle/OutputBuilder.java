@@ -1,8 +1,10 @@
 package app.commandHandle;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import fileio.input.CommandInput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -12,16 +14,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * Builds the output message within the CommandRunner class.
  * To avoid the need to create a method for each type of result,
  * I used generics.
+ * The mapper is built once and shared, it is thread-safe once configured. The output is
+ * written as JSON tokens when it is built, with no tree in between: strings, numbers,
+ * maps and lists by hand, and the known result types through OutputWritable. Only other
+ * types go through the mapper.
  * @param <T> the type of result.
  */
 public class OutputBuilder<T> {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private String message;
     private ArrayList<String> results;
     private List<T> result;
-    private ObjectMapper objectMapper;
     private CommandInput cmdInput;
     private T stats;
-    private ObjectNode objectNode;
     private Boolean swap;
     private String resultFieldName = "result";
     private String fieldName = "";
@@ -29,12 +35,17 @@ public class OutputBuilder<T> {
     private Integer valueField = 0;
 
     public OutputBuilder(final CommandInput commandInput) {
-        objectMapper = new ObjectMapper();
         cmdInput = commandInput;
-        this.objectNode = objectMapper.createObjectNode();
         swap = false;
     }
 
+    /**
+     * @return the shared mapper
+     */
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
     /**
      * Sets the output message.
      * @param msg the output message
@@ -123,51 +134,103 @@ public class OutputBuilder<T> {
      * Builds the output message based on previous constructions.
      * @return
      */
-    public ObjectNode build() {
+    public CommandResult build() {
+        return new CommandResult(this);
+    }
+
+    /**
+     * Writes the output message as a JSON object.
+     * @param generator the generator of the output
+     * @throws IOException if the output can't be written
+     */
+    void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
         if (!swap) {
             if (cmdInput.getCommand() != null) {
-                objectNode.put("command", cmdInput.getCommand());
+                generator.writeStringField("command", cmdInput.getCommand());
             }
 
             if (cmdInput.getUsername() != null) {
-                objectNode.put("user", cmdInput.getUsername());
+                generator.writeStringField("user", cmdInput.getUsername());
             }
         } else {
             if (cmdInput.getUsername() != null) {
-                objectNode.put("user", cmdInput.getUsername());
+                generator.writeStringField("user", cmdInput.getUsername());
             }
 
             if (cmdInput.getCommand() != null) {
-                objectNode.put("command", cmdInput.getCommand());
+                generator.writeStringField("command", cmdInput.getCommand());
             }
         }
 
         if (cmdInput.getTimestamp() != null) {
-            objectNode.put("timestamp", cmdInput.getTimestamp());
+            generator.writeNumberField("timestamp", cmdInput.getTimestamp());
         }
 
         if (message != null) {
-            objectNode.put("message", message);
+            generator.writeStringField("message", message);
         }
 
         if (mapResult != null) {
-            objectNode.put(resultFieldName, objectMapper.valueToTree(mapResult));
+            generator.writeFieldName(resultFieldName);
+            writeValue(generator, mapResult);
         } else if (result != null) {
-            objectNode.put(resultFieldName, objectMapper.valueToTree(result));
+            generator.writeFieldName(resultFieldName);
+            writeValue(generator, result);
         }
 
         if (results != null) {
-            objectNode.put("results", objectMapper.valueToTree(results));
+            generator.writeFieldName("results");
+            writeValue(generator, results);
         }
 
         if (stats != null) {
-            objectNode.put("stats", objectMapper.valueToTree(stats));
+            generator.writeFieldName("stats");
+            writeValue(generator, stats);
         }
 
         if (!fieldName.isEmpty()) {
-            objectNode.put(fieldName, valueField);
+            generator.writeNumberField(fieldName, valueField);
         }
+        generator.writeEndObject();
+    }
 
-        return objectNode;
+    /**
+     * Writes a result.
+     * @param generator the generator of the output
+     * @param value the result
+     */
+    private static void writeValue(final JsonGenerator generator, final Object value)
+            throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String text) {
+            generator.writeString(text);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Double number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof OutputWritable writable) {
+            generator.writeStartObject();
+            writable.writeTo(generator);
+            generator.writeEndObject();
+        } else if (value instanceof Map<?, ?> map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Collection<?> collection) {
+            generator.writeStartArray();
+            for (Object entry : collection) {
+                writeValue(generator, entry);
+            }
+            generator.writeEndArray();
+        } else {
+            MAPPER.writeValue(generator, value);
+        }
     }
 }
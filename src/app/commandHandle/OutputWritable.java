@@ -0,0 +1,19 @@
+package app.commandHandle;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * A result that writes its own fields into the output of a command, so the output
+ * is written directly instead of going through reflection.
+ */
+public interface OutputWritable {
+    /**
+     * Writes the fields of the result, in the order they are shown, into the object the
+     * generator is in.
+     * @param generator the generator of the output
+     * @throws IOException if the output can't be written
+     */
+    void writeTo(JsonGenerator generator) throws IOException;
+}
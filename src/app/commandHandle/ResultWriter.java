@@ -0,0 +1,74 @@
+package app.commandHandle;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Streams the results of the commands to the output file as a JSON array. Every result
+ * is written as soon as it is produced and can be dropped right after, so memory does
+ * not grow with the length of the session. The output is pretty printed, like the
+ * reference files, unless the "output.pretty" system property is set to false.
+ */
+public final class ResultWriter implements AutoCloseable {
+    public static final String PRETTY_PROPERTY = "output.pretty";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the output file and starts the array of results.
+     * @param file the output file
+     * @throws IOException if the file can't be written
+     */
+    public ResultWriter(final File file) throws IOException {
+        generator = OutputBuilder.getMapper().getFactory().createGenerator(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+
+        if (Boolean.parseBoolean(System.getProperty(PRETTY_PROPERTY, "true"))) {
+            generator.useDefaultPrettyPrinter();
+        }
+
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the result of a command.
+     * @param result the result, null if the command has no output
+     * @throws IOException if the file can't be written
+     */
+    public void write(final CommandResult result) throws IOException {
+        if (result == null) {
+            generator.writeNull();
+        } else {
+            result.writeTo(generator);
+        }
+    }
+
+    /**
+     * Writes the result of a command kept as JSON, laid out like the results written
+     * straight from the command.
+     * @param json the result, as compact JSON in UTF-8
+     * @throws IOException if the result can't be parsed or the file can't be written
+     */
+    public void write(final byte[] json) throws IOException {
+        try (JsonParser parser = OutputBuilder.getMapper().getFactory().createParser(json)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+    }
+
+    /**
+     * Ends the array of results and closes the file.
+     * @throws IOException if the file can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -0,0 +1,248 @@
+package app.notifications;
+
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+import app.user.ContentCreator;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The notifications of a user. The notifications of the creators the user is subscribed
+ * to are not copied here when they are sent, the inbox only keeps how far it has read the
+ * feed of every creator. They are taken from the feeds, in the order they were sent, when
+ * the user asks for them, or when the user unsubscribes from one of the creators. Every
+ * position the inbox keeps is registered with its feed, so the feed can drop what all its
+ * readers are past.
+ *
+ * <p>The notifications taken from the feeds wait in a ring buffer until the user reads
+ * them. The buffer grows as needed, up to "notifications.inboxCapacity" notifications;
+ * past that, the oldest unread notification is dropped for every new one, and counted.
+ * Feeds never keep more than that many notifications for their readers either, as an
+ * older one would be dropped from any inbox taking it.
+ */
+public final class Inbox {
+    public static final String CAPACITY_PROPERTY = "notifications.inboxCapacity";
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int INITIAL_CAPACITY = 4;
+    static final int CAPACITY = Math.max(1,
+            Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+
+    private final Map<ContentCreator, Integer> cursors = new LinkedHashMap<>();
+    private Notification[] ring = new Notification[0];
+    private long read;
+    private long written;
+    @Getter
+    private int dropped;
+
+    /**
+     * Starts receiving the notifications a creator sends from now on.
+     *
+     * @param creator the creator
+     */
+    public void follow(final ContentCreator creator) {
+        Integer previous = cursors.put(creator, creator.getFeed().subscribe());
+        if (previous != null) {
+            creator.getFeed().detach(previous);
+        }
+    }
+
+    /**
+     * Stops receiving the notifications of a creator. The ones sent so far are kept.
+     *
+     * @param creator the creator
+     */
+    public void unfollow(final ContentCreator creator) {
+        deliver();
+        Integer position = cursors.remove(creator);
+        if (position != null) {
+            creator.getFeed().detach(position);
+        }
+    }
+
+    /**
+     * Stops reading every feed, without taking what is left in them, so the feeds can drop
+     * what only this inbox was still to read. Used when the user is deleted.
+     */
+    public void release() {
+        cursors.forEach((creator, position) -> creator.getFeed().detach(position));
+        cursors.clear();
+    }
+
+    /**
+     * Takes the notifications received since the last time they were taken.
+     *
+     * @return the notifications, in the order they were sent
+     */
+    public List<Notification> take() {
+        deliver();
+        List<Notification> notifications = new ArrayList<>((int) (written - read));
+        for (; read < written; read++) {
+            int slot = slot(read);
+            notifications.add(ring[slot]);
+            ring[slot] = null;
+        }
+
+        return notifications;
+    }
+
+    /**
+     * Takes what is left to read in the feeds. Only the newest notifications, up to the
+     * capacity, can end up in the buffer, so the feeds are merged backwards, from their
+     * last notification, until that many are taken, and the rest are only counted as
+     * dropped. The notifications taken are all newer than the ones already in the buffer.
+     */
+    private void deliver() {
+        PriorityQueue<Backlog> latest = new PriorityQueue<>(
+                (first, second) -> Integer.compare(second.latest(), first.latest()));
+        List<Backlog> backlogs = new ArrayList<>();
+        int pending = 0;
+        for (Map.Entry<ContentCreator, Integer> cursor : cursors.entrySet()) {
+            if (cursor.getValue() < cursor.getKey().getFeed().end()) {
+                Backlog backlog = new Backlog(cursor);
+                backlogs.add(backlog);
+                dropped += backlog.skipped();
+                pending += backlog.size();
+                if (backlog.size() > 0) {
+                    latest.add(backlog);
+                }
+            }
+        }
+
+        Notification[] newest = new Notification[Math.min(pending, CAPACITY)];
+        for (int i = newest.length - 1; i >= 0; i--) {
+            Backlog backlog = latest.poll();
+            newest[i] = backlog.take();
+            if (backlog.size() > 0) {
+                latest.add(backlog);
+            }
+        }
+        dropped += pending - newest.length;
+
+        backlogs.forEach(Backlog::advance);
+        for (Notification notification : newest) {
+            add(notification);
+        }
+    }
+
+    private void add(final Notification notification) {
+        if (written - read == ring.length) {
+            if (ring.length < CAPACITY) {
+                grow();
+            } else {
+                read++;
+                dropped++;
+            }
+        }
+
+        ring[slot(written++)] = notification;
+    }
+
+    /**
+     * Doubles the buffer, up to its capacity, moving the unread notifications to the start
+     * of the new one, so their slots stay the positions they were written at.
+     */
+    private void grow() {
+        Notification[] unread = new Notification[(int) (written - read)];
+        for (long position = read; position < written; position++) {
+            unread[(int) (position - read)] = ring[slot(position)];
+        }
+
+        ring = Arrays.copyOf(unread, Math.min(CAPACITY,
+                Math.max(INITIAL_CAPACITY, 2 * ring.length)));
+        written -= read;
+        read = 0;
+    }
+
+    private int slot(final long position) {
+        return (int) (position % ring.length);
+    }
+
+    /**
+     * What an inbox is left to read in a feed, from its position, or from the first
+     * notification the feed still keeps if the feed is past it, to the end of the feed.
+     */
+    private static final class Backlog {
+        private final Map.Entry<ContentCreator, Integer> cursor;
+        private final NotificationFeed feed;
+        private final int start;
+        private final int end;
+        private int next;
+
+        Backlog(final Map.Entry<ContentCreator, Integer> cursor) {
+            this.cursor = cursor;
+            feed = cursor.getKey().getFeed();
+            start = Math.max(cursor.getValue(), feed.start());
+            end = feed.end();
+            next = end;
+        }
+
+        int skipped() {
+            return start - cursor.getValue();
+        }
+
+        int size() {
+            return next - start;
+        }
+
+        int latest() {
+            return feed.get(next - 1).getSequence();
+        }
+
+        Notification take() {
+            return feed.get(--next).getNotification();
+        }
+
+        void advance() {
+            feed.advance(cursor.getValue(), end);
+            cursor.setValue(end);
+        }
+    }
+
+    /**
+     * Writes the inbox to a snapshot.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt((int) (written - read));
+        for (long position = read; position < written; position++) {
+            out.writeNotification(ring[slot(position)]);
+        }
+        out.writeInt(dropped);
+
+        out.writeInt(cursors.size());
+        cursors.forEach((creator, index) -> {
+            out.writeAccount(creator);
+            out.writeInt(index);
+        });
+    }
+
+    /**
+     * Reads the inbox back from a snapshot, replacing its content.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        ring = new Notification[0];
+        read = 0;
+        written = 0;
+        for (int count = in.readInt(); count > 0; count--) {
+            add(in.readNotification());
+        }
+        dropped = in.readInt();
+
+        release();
+        for (int count = in.readInt(); count > 0; count--) {
+            ContentCreator creator = (ContentCreator) in.readAccount();
+            int position = in.readInt();
+            creator.getFeed().attach(position);
+            cursors.put(creator, position);
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package app.notifications;
 
+import app.commandHandle.OutputWritable;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
-import lombok.Setter;
+
+import java.io.IOException;
 
 /**
- * Notifications data class
+ * Notifications data class. A notification can't be changed once it is made, so a single
+ * one is shared by every inbox it is delivered to.
  */
-@Getter @Setter
-public class Notification {
-    private String name;
-    private String description;
+@Getter
+public final class Notification implements OutputWritable {
+    private final String name;
+    private final String description;
 
     public Notification(final String name, final String description) {
         this.name = name;
         this.description = description;
     }
+
+    @Override
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStringField("name", name);
+        generator.writeStringField("description", description);
+    }
 }
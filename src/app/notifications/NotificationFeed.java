@@ -0,0 +1,162 @@
+package app.notifications;
+
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The notifications sent by a content creator, in the order they were sent. Sending a
+ * notification only adds it here, once, however many subscribers the creator has. The
+ * inbox of every subscriber keeps how far it has read the feed and takes the rest when
+ * the subscriber asks for its notifications.
+ *
+ * <p>Notifications are numbered by their position in the feed, from the first one ever
+ * sent. The feed keeps the position of every subscribed inbox and drops the notifications
+ * before the lowest one, which no inbox will read again; with no subscriber left, nothing
+ * is kept. It never keeps more than the capacity of an inbox either: an inbox taking an
+ * older one would drop it for the newer ones anyway. The dropped slots are freed right
+ * away and the list is compacted once they make up half of it.
+ */
+public final class NotificationFeed {
+    private final List<Post> posts = new ArrayList<>();
+    private final NavigableMap<Integer, Integer> readers = new TreeMap<>();
+    private int offset;
+    private int start;
+
+    /**
+     * Adds a notification to the feed.
+     *
+     * @param notification the notification
+     * @param sequence     the number of the notification among all the notifications sent,
+     *                     by any creator, so inboxes can put them back in the order they
+     *                     were sent
+     */
+    public void post(final Notification notification, final int sequence) {
+        posts.add(new Post(sequence, notification));
+        trim();
+    }
+
+    /**
+     * @return the position of the first notification still kept
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * @return the position the next notification will be sent at
+     */
+    int end() {
+        return offset + posts.size();
+    }
+
+    Post get(final int position) {
+        return posts.get(position - offset);
+    }
+
+    /**
+     * Adds a reader at the end of the feed.
+     *
+     * @return the position of the reader
+     */
+    int subscribe() {
+        int position = end();
+        attach(position);
+        return position;
+    }
+
+    /**
+     * Adds a reader at a position, without dropping anything.
+     */
+    void attach(final int position) {
+        readers.merge(position, 1, Integer::sum);
+    }
+
+    /**
+     * Removes a reader and drops what no reader will read anymore.
+     */
+    void detach(final int position) {
+        readers.computeIfPresent(position, (key, count) -> count == 1 ? null : count - 1);
+        trim();
+    }
+
+    /**
+     * Moves a reader forward and drops what no reader will read anymore.
+     */
+    void advance(final int from, final int to) {
+        attach(to);
+        detach(from);
+    }
+
+    private void trim() {
+        int low = Math.max(readers.isEmpty() ? end() : readers.firstKey(),
+                end() - Inbox.CAPACITY);
+        if (low <= start) {
+            return;
+        }
+
+        for (int position = start; position < low; position++) {
+            posts.set(position - offset, null);
+        }
+        start = low;
+
+        if (2 * (start - offset) >= posts.size()) {
+            posts.subList(0, start - offset).clear();
+            offset = start;
+        }
+    }
+
+    /**
+     * Writes the notifications kept by the feed to a snapshot. The positions of the readers
+     * are written by their inboxes.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(start);
+        out.writeInt(end() - start);
+        for (int position = start; position < end(); position++) {
+            Post post = get(position);
+            out.writeInt(post.sequence);
+            out.writeNotification(post.notification);
+        }
+    }
+
+    /**
+     * Reads the notifications of the feed back from a snapshot, replacing the ones in it.
+     * The readers already attached by their inboxes are kept.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        posts.clear();
+        offset = in.readInt();
+        start = offset;
+        for (int count = in.readInt(); count > 0; count--) {
+            int sequence = in.readInt();
+            posts.add(new Post(sequence, in.readNotification()));
+        }
+    }
+
+    static final class Post {
+        private final int sequence;
+        private final Notification notification;
+
+        Post(final int sequence, final Notification notification) {
+            this.sequence = sequence;
+            this.notification = notification;
+        }
+
+        int getSequence() {
+            return sequence;
+        }
+
+        Notification getNotification() {
+            return notification;
+        }
+    }
+}
@@ -17,6 +17,8 @@ public final class ArtistPage extends Page {
     private List<Merchandise> merch;
     private List<Event> events;
     private String owner;
+    @Getter
+    private final Artist artist;
 
     /**
      * Instantiates a new Artist page.
@@ -28,6 +30,7 @@ public final class ArtistPage extends Page {
         merch = artist.getMerch();
         events = artist.getEvents();
         owner = artist.getUsername();
+        this.artist = artist;
     }
 
     @Override
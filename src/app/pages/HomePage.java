@@ -7,14 +7,15 @@ import lombok.Getter;
 import lombok.Setter;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The type Home page.
  */
 @Getter @Setter
 public final class HomePage extends Page {
-    private List<Song> likedSongs;
-    private List<Playlist> followedPlaylists;
+    private Set<Song> likedSongs;
+    private Set<Playlist> followedPlaylists;
     private List<Song> songRecommendations;
     private List<Playlist> playlistRecommendations;
     private String owner;
@@ -3,6 +3,7 @@ package app.pages;
 import app.audio.Collections.Podcast;
 import app.pages.pageContent.Announcement;
 import app.user.Host;
+import lombok.Getter;
 
 import java.util.List;
 
@@ -13,6 +14,8 @@ public final class HostPage extends Page {
     private List<Podcast> podcasts;
     private List<Announcement> announcements;
     private String owner;
+    @Getter
+    private final Host host;
 
     /**
      * Instantiates a new Host page.
@@ -23,6 +26,7 @@ public final class HostPage extends Page {
         podcasts = host.getPodcasts();
         announcements = host.getAnnouncements();
         owner = host.getUsername();
+        this.host = host;
     }
 
     @Override
@@ -5,6 +5,7 @@ import app.audio.Files.Song;
 import app.user.User;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * The type Liked content page.
@@ -13,11 +14,11 @@ public final class LikedContentPage extends Page {
     /**
      * The Liked songs.
      */
-    private List<Song> likedSongs;
+    private Set<Song> likedSongs;
     /**
      * The Followed playlists.
      */
-    private List<Playlist> followedPlaylists;
+    private Set<Playlist> followedPlaylists;
     private String owner;
 
     /**
@@ -0,0 +1,312 @@
+package app.player;
+
+import app.audio.AudioCatalog;
+import app.audio.Files.AudioFile;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ordered history of the audio files a player went through, stored as catalog ids in a
+ * growable int array. A record is either a single id, or a run-length entry of three ints
+ * ("this cycle of tracks, from this position, for this many tracks") used for whole loops
+ * of a repeated collection and for the same track played several times in a row.
+ * <p>
+ * The tracks of the loaded source are appended as they are played and only become part of
+ * the history once they are committed; loading a new source without stopping the player
+ * rolls them back. Committed tracks are reported to a listener, which keeps the wrapped
+ * statistics up to date, and the tracks not committed yet are reported to the index of
+ * pending listens as they are appended.
+ */
+public final class ListenHistory {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int RUN_LENGTH = 3;
+
+    private final AudioCatalog catalog;
+    private final ListenConsumer onCommit;
+    private final PendingListens pending;
+    private final Player owner;
+    private final List<int[]> cycles = new ArrayList<>();
+    private int[] records = new int[INITIAL_CAPACITY];
+    private int length;
+    private int size;
+    private int lastRecord = -1;
+    private int committedLength;
+    private int committedSize;
+    private int committedLastRecord = -1;
+    private int committedCycles;
+
+    /**
+     * Visits the tracks of a history, the same track played several times in a row being
+     * reported once along with how many times it was played.
+     */
+    @FunctionalInterface
+    public interface ListenConsumer {
+        /**
+         * Accepts a track.
+         *
+         * @param audioFile the audio file
+         * @param count     how many times it was played
+         */
+        void accept(AudioFile audioFile, int count);
+    }
+
+    /**
+     * Instantiates a new Listen history.
+     *
+     * @param catalog  the catalog that gives the ids of the audio files
+     * @param onCommit the consumer the tracks are reported to once committed
+     * @param pending  the index the tracks not committed yet are reported to
+     * @param owner    the player the history belongs to
+     */
+    ListenHistory(final AudioCatalog catalog, final ListenConsumer onCommit,
+                  final PendingListens pending, final Player owner) {
+        this.catalog = catalog;
+        this.onCommit = onCommit;
+        this.pending = pending;
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the number of tracks in the history.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the history is empty.
+     *
+     * @return if the history is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends a track.
+     *
+     * @param audioFile the audio file
+     */
+    public void add(final AudioFile audioFile) {
+        int id = catalog.intern(audioFile);
+        pending.add(owner, audioFile);
+
+        if (lastRecord >= committedLength) {
+            if (records[lastRecord] == id) {
+                cycles.add(new int[] {id});
+                length = lastRecord;
+                appendRun(cycles.size() - 1, 0, 2);
+                size--;
+                return;
+            }
+
+            if (records[lastRecord] < 0) {
+                int[] cycle = cycles.get(-records[lastRecord] - 1);
+                if (cycle.length == 1 && cycle[0] == id) {
+                    records[lastRecord + 2]++;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        ensureCapacity(1);
+        lastRecord = length;
+        records[length++] = id;
+        size++;
+    }
+
+    /**
+     * Appends a stretch of a repeated cycle of tracks.
+     *
+     * @param cycle  the tracks of one loop, in playing order
+     * @param start  the position in the cycle of the first track played
+     * @param tracks the number of tracks played
+     */
+    public void addLoop(final AudioFile[] cycle, final int start, final int tracks) {
+        if (tracks == 0) {
+            return;
+        }
+
+        int[] ids = new int[cycle.length];
+        for (int i = 0; i < cycle.length; i++) {
+            ids[i] = catalog.intern(cycle[i]);
+            pending.add(owner, cycle[i]);
+        }
+
+        cycles.add(ids);
+        appendRun(cycles.size() - 1, start, tracks);
+    }
+
+    /**
+     * Makes the tracks appended so far part of the history.
+     */
+    public void commit() {
+        walk(committedLength, committedSize, committedSize, size, onCommit);
+        committedLength = length;
+        committedSize = size;
+        committedLastRecord = lastRecord;
+        committedCycles = cycles.size();
+        pending.settle(owner);
+    }
+
+    /**
+     * Drops the tracks appended since the last commit.
+     */
+    public void rollback() {
+        length = committedLength;
+        size = committedSize;
+        lastRecord = committedLastRecord;
+        cycles.subList(committedCycles, cycles.size()).clear();
+        pending.settle(owner);
+    }
+
+    /**
+     * Visits the whole history in order.
+     *
+     * @param consumer the consumer
+     */
+    public void forEach(final ListenConsumer consumer) {
+        forEach(0, size, consumer);
+    }
+
+    /**
+     * Visits the committed part of the history in order.
+     *
+     * @param consumer the consumer
+     */
+    public void forEachCommitted(final ListenConsumer consumer) {
+        forEach(0, committedSize, consumer);
+    }
+
+    /**
+     * Visits the tracks between two positions of the history. The tracks of a loop are
+     * reported once per position in the cycle, with the number of times they were played.
+     *
+     * @param from     the first position, inclusive
+     * @param to       the last position, exclusive
+     * @param consumer the consumer
+     */
+    public void forEach(final int from, final int to, final ListenConsumer consumer) {
+        walk(0, 0, from, to, consumer);
+    }
+
+    /**
+     * Writes the history, the tracks not committed yet included, to a snapshot.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(records[i]);
+        }
+
+        out.writeInt(cycles.size());
+        for (int[] cycle : cycles) {
+            out.writeInt(cycle.length);
+            for (int id : cycle) {
+                out.writeInt(id);
+            }
+        }
+
+        out.writeInt(size);
+        out.writeInt(lastRecord);
+        out.writeInt(committedLength);
+        out.writeInt(committedSize);
+        out.writeInt(committedLastRecord);
+        out.writeInt(committedCycles);
+    }
+
+    /**
+     * Reads the history back from a snapshot, replacing its content. The ids are those of
+     * the catalog the snapshot was taken with, so the catalog has to be read back as well.
+     * The tracks not committed yet are reported to the index of pending listens again.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        length = in.readInt();
+        records = new int[Math.max(length, INITIAL_CAPACITY)];
+        for (int i = 0; i < length; i++) {
+            records[i] = in.readInt();
+        }
+
+        cycles.clear();
+        for (int count = in.readInt(); count > 0; count--) {
+            int[] cycle = new int[in.readInt()];
+            for (int i = 0; i < cycle.length; i++) {
+                cycle[i] = in.readInt();
+            }
+            cycles.add(cycle);
+        }
+
+        size = in.readInt();
+        lastRecord = in.readInt();
+        committedLength = in.readInt();
+        committedSize = in.readInt();
+        committedLastRecord = in.readInt();
+        committedCycles = in.readInt();
+
+        pending.settle(owner);
+        walk(committedLength, committedSize, committedSize, size,
+                (audioFile, count) -> pending.add(owner, audioFile));
+    }
+
+    private void walk(final int firstRecord, final int firstPosition, final int from,
+                      final int to, final ListenConsumer consumer) {
+        int position = firstPosition;
+        int record = firstRecord;
+
+        while (record < length && position < to) {
+            if (records[record] >= 0) {
+                if (position >= from) {
+                    consumer.accept(catalog.get(records[record]), 1);
+                }
+                position++;
+                record++;
+                continue;
+            }
+
+            int[] cycle = cycles.get(-records[record] - 1);
+            int start = records[record + 1];
+            int tracks = records[record + 2];
+            int first = Math.max(from - position, 0);
+            int last = Math.min(to - position, tracks);
+
+            if (first < last) {
+                int span = last - first;
+                int distinct = Math.min(span, cycle.length);
+                for (int i = 0; i < distinct; i++) {
+                    int count = span / cycle.length + (i < span % cycle.length ? 1 : 0);
+                    int offset = (int) (((long) start + first + i) % cycle.length);
+                    consumer.accept(catalog.get(cycle[offset]), count);
+                }
+            }
+
+            position += tracks;
+            record += RUN_LENGTH;
+        }
+    }
+
+    private void appendRun(final int cycle, final int start, final int tracks) {
+        ensureCapacity(RUN_LENGTH);
+        lastRecord = length;
+        records[length++] = -cycle - 1;
+        records[length++] = start;
+        records[length++] = tracks;
+        size += tracks;
+    }
+
+    private void ensureCapacity(final int extra) {
+        if (length + extra > records.length) {
+            records = Arrays.copyOf(records, Math.max(records.length * 2, length + extra));
+        }
+    }
+}
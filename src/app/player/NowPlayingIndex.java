@@ -0,0 +1,130 @@
+package app.player;
+
+import app.audio.Collections.AudioCollection;
+import app.audio.Files.AudioFile;
+import app.pages.Page;
+import app.user.User;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse index from the content currently in use to whoever uses it: the players that
+ * have an audio file or an audio collection loaded and the users that are on a page.
+ * Players and users keep it up to date themselves, so checking whether something can
+ * be deleted does not have to walk every user on the platform.
+ */
+public final class NowPlayingIndex {
+    private final Map<AudioFile, Set<Player>> files = new IdentityHashMap<>();
+    private final Map<AudioCollection, Set<Player>> collections = new IdentityHashMap<>();
+    private final Map<Page, Set<User>> pages = new IdentityHashMap<>();
+
+    /**
+     * Moves a player from the audio file it was playing to the new one.
+     *
+     * @param player the player
+     * @param from   the previous audio file, may be null
+     * @param to     the current audio file, may be null
+     */
+    public void moveFile(final Player player, final AudioFile from, final AudioFile to) {
+        move(files, player, from, to);
+    }
+
+    /**
+     * Moves a player from the audio collection it had loaded to the new one.
+     *
+     * @param player the player
+     * @param from   the previous audio collection, may be null
+     * @param to     the current audio collection, may be null
+     */
+    public void moveCollection(final Player player, final AudioCollection from,
+                               final AudioCollection to) {
+        move(collections, player, from, to);
+    }
+
+    /**
+     * Moves a user from the page it was on to the new one.
+     *
+     * @param user the user
+     * @param from the previous page, may be null
+     * @param to   the current page, may be null
+     */
+    public void movePage(final User user, final Page from, final Page to) {
+        move(pages, user, from, to);
+    }
+
+    /**
+     * @param audioFile the audio file
+     * @return if any player is currently playing the audio file
+     */
+    public boolean isPlaying(final AudioFile audioFile) {
+        return files.containsKey(audioFile);
+    }
+
+    /**
+     * @param collection the audio collection
+     * @return if any player has the audio collection loaded
+     */
+    public boolean isLoaded(final AudioCollection collection) {
+        return collections.containsKey(collection);
+    }
+
+    /**
+     * @param collection the audio collection
+     * @param player     the player to ignore
+     * @return if a player other than the given one has the audio collection loaded
+     */
+    public boolean isLoadedByOther(final AudioCollection collection, final Player player) {
+        Set<Player> players = collections.get(collection);
+        return players != null && (players.size() > 1 || !players.contains(player));
+    }
+
+    /**
+     * @param page the page
+     * @return if any user is currently on the page
+     */
+    public boolean isViewed(final Page page) {
+        return pages.containsKey(page);
+    }
+
+    /**
+     * @return the audio collections loaded by at least one player
+     */
+    public Set<AudioCollection> getLoadedCollections() {
+        return Collections.unmodifiableSet(collections.keySet());
+    }
+
+    /**
+     * Removes a user and its player from the index.
+     *
+     * @param user the user
+     */
+    public void forget(final User user) {
+        user.getPlayer().detach();
+        movePage(user, user.getCurrentPage(), null);
+    }
+
+    private static <K, V> void move(final Map<K, Set<V>> index, final V holder,
+                                    final K from, final K to) {
+        if (from == to) {
+            return;
+        }
+
+        if (from != null) {
+            Set<V> holders = index.get(from);
+            if (holders != null) {
+                holders.remove(holder);
+                if (holders.isEmpty()) {
+                    index.remove(from);
+                }
+            }
+        }
+
+        if (to != null) {
+            index.computeIfAbsent(to, key -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                    .add(holder);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package app.player;
+
+import app.audio.Files.AudioFile;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse index of the tracks the players hold that are not committed yet, by the creator
+ * of each track, so bringing the statistics of one artist or host up to date only commits
+ * the histories of the players holding some of its tracks. Every other history is
+ * committed lazily: committing them all bumps a barrier, and each player commits its
+ * history the next time it is synced after the barrier moved, which adds nothing to it
+ * in between.
+ */
+public final class PendingListens {
+    private final Map<String, Set<Player>> byCreator = new HashMap<>();
+    private final Map<Player, Set<String>> byPlayer = new IdentityHashMap<>();
+    @Getter
+    private int barrier;
+
+    /**
+     * Commits the history of every player, as of now, so the statistics of a creator are
+     * up to date. The players holding tracks of the creator are committed right away, the
+     * others once they are synced again.
+     *
+     * @param creator the name of the artist or host
+     */
+    public void commitAll(final String creator) {
+        barrier++;
+
+        Set<Player> players = byCreator.get(creator);
+        if (players != null) {
+            List.copyOf(players).forEach(Player::updateHistory);
+        }
+    }
+
+    /**
+     * Records that a player appended a track to its history.
+     */
+    void add(final Player player, final AudioFile audioFile) {
+        String creator = audioFile.getOwner();
+        if (byPlayer.computeIfAbsent(player, key -> new HashSet<>()).add(creator)) {
+            byCreator.computeIfAbsent(creator, key -> identitySet()).add(player);
+        }
+    }
+
+    /**
+     * Records that a player committed or dropped the tracks it held.
+     */
+    void settle(final Player player) {
+        Set<String> creators = byPlayer.remove(player);
+        if (creators == null) {
+            return;
+        }
+
+        for (String creator : creators) {
+            Set<Player> players = byCreator.get(creator);
+            players.remove(player);
+            if (players.isEmpty()) {
+                byCreator.remove(creator);
+            }
+        }
+    }
+
+    private static Set<Player> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
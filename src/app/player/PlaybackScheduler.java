@@ -0,0 +1,58 @@
+package app.player;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Platform clock plus a queue of the next track boundary of every playing player.
+ * Moving the clock only wakes the players whose current track ends in the elapsed
+ * interval, every other player catches up lazily the next time its state is read,
+ * so paused, stopped and offline users cost nothing per command.
+ */
+public final class PlaybackScheduler {
+    @Getter
+    private int now;
+    private final PriorityQueue<Wakeup> queue =
+            new PriorityQueue<>((first, second) -> Integer.compare(first.due, second.due));
+
+    /**
+     * Moves the clock forward and advances every player whose track boundary was crossed.
+     *
+     * @param timestamp the new timestamp
+     */
+    public void advance(final int timestamp) {
+        now = timestamp;
+
+        List<Wakeup> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().due <= now) {
+            due.add(queue.poll());
+        }
+
+        for (Wakeup wakeup : due) {
+            wakeup.player.wakeUp(wakeup.due);
+        }
+    }
+
+    /**
+     * Asks for a player to be woken up at the given timestamp.
+     *
+     * @param player the player
+     * @param due    the timestamp of its next track boundary
+     */
+    void schedule(final Player player, final int due) {
+        queue.add(new Wakeup(player, due));
+    }
+
+    private static final class Wakeup {
+        private final Player player;
+        private final int due;
+
+        private Wakeup(final Player player, final int due) {
+            this.player = player;
+            this.due = due;
+        }
+    }
+}
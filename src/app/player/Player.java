@@ -1,8 +1,11 @@
 package app.player;
 
+import app.audio.AudioCatalog;
 import app.audio.Collections.AudioCollection;
 import app.audio.Files.AudioFile;
 import app.audio.LibraryEntry;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
 import app.utils.Enums;
 import lombok.Getter;
 import lombok.Setter;
@@ -17,31 +20,55 @@ public final class Player {
     private Enums.RepeatMode repeatMode;
     private boolean shuffle;
     private boolean paused;
-    @Getter
     private PlayerSource source;
     @Getter
     private String type;
     private final int skipTime = 90;
     private ArrayList<PodcastBookmark> bookmarks = new ArrayList<>();
-    @Getter @Setter
-    private ArrayList<AudioFile> history = new ArrayList<>();
+    private final ListenHistory history;
     @Getter @Setter
     private ArrayList<Integer> premiumStarts = new ArrayList<>();
     @Getter @Setter
     private ArrayList<Integer> premiumEnds = new ArrayList<>();
+    private final NowPlayingIndex nowPlaying;
+    private AudioFile indexedFile;
+    private AudioCollection indexedCollection;
+    private static final int IDLE = Integer.MIN_VALUE;
+    private final PlaybackScheduler scheduler;
+    private final PendingListens pending;
+    private int seenBarrier;
+    private boolean detached;
+    private int lastSync;
+    private boolean suspended;
+    private int scheduledDue = IDLE;
 
     /**
      * Instantiates a new Player.
+     *
+     * @param nowPlaying the index that tracks what every player has loaded
+     * @param scheduler  the clock that wakes the player up at its track boundaries
+     * @param catalog    the catalog that gives the ids stored in the history
+     * @param pending    the index of the tracks not committed yet, by creator
+     * @param onListen   the consumer the tracks are reported to once added to the history
      */
-    public Player() {
+    public Player(final NowPlayingIndex nowPlaying, final PlaybackScheduler scheduler,
+                  final AudioCatalog catalog, final PendingListens pending,
+                  final ListenHistory.ListenConsumer onListen) {
         this.repeatMode = Enums.RepeatMode.NO_REPEAT;
+        this.history = new ListenHistory(catalog, onListen, pending, this);
         this.paused = true;
+        this.nowPlaying = nowPlaying;
+        this.scheduler = scheduler;
+        this.pending = pending;
+        this.seenBarrier = pending.getBarrier();
+        this.lastSync = scheduler.getNow();
     }
 
     /**
      * Stops the player and updates the history.
      */
     public void stop() {
+        sync();
         if (source == null) {
             return;
         }
@@ -50,23 +77,115 @@ public final class Player {
             bookmarkPodcast();
         }
 
-        history.addAll(source.getHistory());
+        history.commit();
         repeatMode = Enums.RepeatMode.NO_REPEAT;
         paused = true;
         source = null;
         shuffle = false;
+        publishState();
+    }
+
+    /**
+     * Removes the player from the now playing index, used once its owner is deleted.
+     */
+    public void detach() {
+        settle();
+        detached = true;
+        pending.settle(this);
+        nowPlaying.moveFile(this, indexedFile, null);
+        nowPlaying.moveCollection(this, indexedCollection, null);
+        indexedFile = null;
+        indexedCollection = null;
+        scheduledDue = IDLE;
+    }
+
+    /**
+     * Pauses the player while its owner is offline and resumes it once the owner is back.
+     *
+     * @param online if the owner of the player is online
+     */
+    public void setOnline(final boolean online) {
+        sync();
+        suspended = !online;
+        reschedule();
+    }
+
+    /**
+     * Called by the scheduler once the boundary the player asked to be woken up at passed.
+     *
+     * @param due the boundary the wake-up was scheduled for
+     */
+    void wakeUp(final int due) {
+        if (due != scheduledDue) {
+            return;
+        }
+
+        scheduledDue = IDLE;
+        sync();
+        reschedule();
+    }
+
+    /**
+     * Commits the history if every history was committed since the player was last
+     * synced, the way it would have been at that time: nothing was added to it since.
+     * A player whose owner is deleted is no longer committed.
+     */
+    public void settle() {
+        if (detached || seenBarrier == pending.getBarrier()) {
+            return;
+        }
+
+        seenBarrier = pending.getBarrier();
+        if (source != null) {
+            history.commit();
+        }
+    }
+
+    private void sync() {
+        settle();
+        int elapsed = scheduler.getNow() - lastSync;
+        lastSync = scheduler.getNow();
+
+        if (elapsed > 0 && !suspended) {
+            simulatePlayer(elapsed);
+        }
+    }
+
+    private void reschedule() {
+        int due = IDLE;
+        if (source != null && !paused && !suspended) {
+            due = lastSync + source.getDuration();
+        }
+
+        if (due != scheduledDue) {
+            scheduledDue = due;
+            if (due != IDLE) {
+                scheduler.schedule(this, due);
+            }
+        }
+    }
+
+    private void publishState() {
+        AudioFile currentFile = source == null ? null : source.getAudioFile();
+        AudioCollection currentCollection = source == null ? null : source.getAudioCollection();
+
+        nowPlaying.moveFile(this, indexedFile, currentFile);
+        nowPlaying.moveCollection(this, indexedCollection, currentCollection);
+        indexedFile = currentFile;
+        indexedCollection = currentCollection;
+        reschedule();
     }
 
     /**
      * Updates the history if the player is not stopped.
      */
     public void updateHistory() {
+        sync();
         if (source == null) {
             return;
         }
 
-        history.addAll(source.getHistory());
-        source.getHistory().clear();
+        history.commit();
     }
 
     private void bookmarkPodcast() {
@@ -86,32 +205,38 @@ public final class Player {
      * @param type      the type
      * @param entry     the entry
      * @param bookmarks the bookmarks
+     * @param history   the history the played tracks are appended to
      * @return the player source
      */
     public static PlayerSource createSource(final String type,
                                             final LibraryEntry entry,
-                                            final List<PodcastBookmark> bookmarks) {
+                                            final List<PodcastBookmark> bookmarks,
+                                            final ListenHistory history) {
         if ("song".equals(type)) {
-            return new PlayerSource(Enums.PlayerSourceType.LIBRARY, (AudioFile) entry);
+            return new PlayerSource(Enums.PlayerSourceType.LIBRARY, (AudioFile) entry, history);
         } else if ("playlist".equals(type)) {
-            return new PlayerSource(Enums.PlayerSourceType.PLAYLIST, (AudioCollection) entry);
+            return new PlayerSource(Enums.PlayerSourceType.PLAYLIST, (AudioCollection) entry,
+                                    history);
         } else if ("podcast".equals(type)) {
-            return createPodcastSource((AudioCollection) entry, bookmarks);
+            return createPodcastSource((AudioCollection) entry, bookmarks, history);
         } else if ("album".equals(type)) {
-            return new PlayerSource(Enums.PlayerSourceType.ALBUM, (AudioCollection) entry);
+            return new PlayerSource(Enums.PlayerSourceType.ALBUM, (AudioCollection) entry,
+                                    history);
         }
 
         return null;
     }
 
     private static PlayerSource createPodcastSource(final AudioCollection collection,
-                                                    final List<PodcastBookmark> bookmarks) {
+                                                    final List<PodcastBookmark> bookmarks,
+                                                    final ListenHistory history) {
         for (PodcastBookmark bookmark : bookmarks) {
             if (bookmark.getName().equals(collection.getName())) {
-                return new PlayerSource(Enums.PlayerSourceType.PODCAST, collection, bookmark);
+                return new PlayerSource(Enums.PlayerSourceType.PODCAST, collection, bookmark,
+                                        history);
             }
         }
-        return new PlayerSource(Enums.PlayerSourceType.PODCAST, collection);
+        return new PlayerSource(Enums.PlayerSourceType.PODCAST, collection, history);
     }
 
     /**
@@ -121,22 +246,27 @@ public final class Player {
      * @param sourceType the sourceType
      */
     public void setSource(final LibraryEntry entry, final String sourceType) {
+        sync();
         if ("podcast".equals(this.type)) {
             bookmarkPodcast();
         }
 
+        history.rollback();
         this.type = sourceType;
-        this.source = createSource(sourceType, entry, bookmarks);
+        this.source = createSource(sourceType, entry, bookmarks, history);
         this.repeatMode = Enums.RepeatMode.NO_REPEAT;
         this.shuffle = false;
         this.paused = true;
+        publishState();
     }
 
     /**
      * Pause.
      */
     public void pause() {
+        sync();
         paused = !paused;
+        reschedule();
     }
 
     /**
@@ -145,6 +275,7 @@ public final class Player {
      * @param seed the seed
      */
     public void shuffle(final Integer seed) {
+        sync();
         if (seed != null) {
             source.generateShuffleOrder(seed);
         }
@@ -164,6 +295,7 @@ public final class Player {
      * @return the enums . repeat mode
      */
     public Enums.RepeatMode repeat() {
+        sync();
         if (repeatMode == Enums.RepeatMode.NO_REPEAT) {
             if (source.getType() == Enums.PlayerSourceType.LIBRARY) {
                 repeatMode = Enums.RepeatMode.REPEAT_ONCE;
@@ -185,17 +317,18 @@ public final class Player {
         return repeatMode;
     }
 
-    /**
-     * Simulate player.
-     *
-     * @param time the time
-     */
-    public void simulatePlayer(final int time) {
+    private void simulatePlayer(final int time) {
         if (source == null || paused) {
             return;
         }
 
         int elapsedTime = time;
+        if (elapsedTime >= source.getDuration()
+            && source.fastForward(elapsedTime, repeatMode, shuffle)) {
+            publishState();
+            return;
+        }
+
         while (elapsedTime >= source.getDuration()) {
             elapsedTime -= source.getDuration();
             next();
@@ -206,12 +339,14 @@ public final class Player {
         }
 
         source.skip(-elapsedTime);
+        publishState();
     }
 
     /**
      * Next.
      */
     public void next() {
+        sync();
         paused = source.setNextAudioFile(repeatMode, shuffle);
         if (repeatMode == Enums.RepeatMode.REPEAT_ONCE) {
             repeatMode = Enums.RepeatMode.NO_REPEAT;
@@ -220,25 +355,30 @@ public final class Player {
         if (source.getDuration() == 0 && paused) {
             stop();
         }
+        publishState();
     }
 
     /**
      * Prev.
      */
     public void prev() {
+        sync();
         source.setPrevAudioFile(shuffle);
         paused = false;
+        publishState();
     }
 
     private void skip(final int duration) {
         source.skip(duration);
         paused = false;
+        publishState();
     }
 
     /**
      * Skip next.
      */
     public void skipNext() {
+        sync();
         if (source.getType() == Enums.PlayerSourceType.PODCAST) {
             skip(-skipTime);
         }
@@ -248,17 +388,39 @@ public final class Player {
      * Skip prev.
      */
     public void skipPrev() {
+        sync();
         if (source.getType() == Enums.PlayerSourceType.PODCAST) {
             skip(skipTime);
         }
     }
 
+    /**
+     * Gets the source, caught up with the current timestamp.
+     *
+     * @return the source
+     */
+    public PlayerSource getSource() {
+        sync();
+        return source;
+    }
+
+    /**
+     * Gets the listening history, caught up with the current timestamp.
+     *
+     * @return the history
+     */
+    public ListenHistory getHistory() {
+        sync();
+        return history;
+    }
+
     /**
      * Gets current audio file.
      *
      * @return the current audio file
      */
     public AudioFile getCurrentAudioFile() {
+        sync();
         if (source == null) {
             return null;
         }
@@ -271,6 +433,7 @@ public final class Player {
      * @return the current audio collection
      */
     public AudioCollection getCurrentAudioCollection() {
+        sync();
         if (source == null) {
             return null;
         }
@@ -283,6 +446,7 @@ public final class Player {
      * @return the paused
      */
     public boolean getPaused() {
+        sync();
         return paused;
     }
 
@@ -292,15 +456,90 @@ public final class Player {
      * @return the shuffle
      */
     public boolean getShuffle() {
+        sync();
         return shuffle;
     }
 
+    /**
+     * Writes the whole state of the player to a snapshot, as it is, without catching up
+     * with the current timestamp.
+     *
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(repeatMode.ordinal());
+        out.writeBoolean(shuffle);
+        out.writeBoolean(paused);
+        out.writeString(type);
+        out.writeBoolean(source != null);
+        if (source != null) {
+            source.writeSnapshot(out);
+        }
+
+        out.writeInt(bookmarks.size());
+        for (PodcastBookmark bookmark : bookmarks) {
+            out.writeString(bookmark.getName());
+            out.writeInt(bookmark.getId());
+            out.writeInt(bookmark.getTimestamp());
+        }
+
+        history.writeSnapshot(out);
+        out.writeInts(premiumStarts);
+        out.writeInts(premiumEnds);
+        out.writeReference(indexedFile);
+        out.writeReference(indexedCollection);
+        out.writeInt(lastSync);
+        out.writeBoolean(suspended);
+        out.writeInt(scheduledDue);
+    }
+
+    /**
+     * Reads the state of the player back from a snapshot. The player is put back in the
+     * now playing index and asks the scheduler to wake it up at its next track boundary,
+     * so the scheduler has to be at the timestamp of the snapshot already.
+     *
+     * @param in the snapshot
+     */
+    public void readSnapshot(final SnapshotInput in) {
+        repeatMode = Enums.RepeatMode.values()[in.readInt()];
+        shuffle = in.readBoolean();
+        paused = in.readBoolean();
+        type = in.readString();
+        source = in.readBoolean() ? PlayerSource.readSnapshot(in, history) : null;
+
+        bookmarks.clear();
+        for (int count = in.readInt(); count > 0; count--) {
+            String name = in.readString();
+            int id = in.readInt();
+            bookmarks.add(new PodcastBookmark(name, id, in.readInt()));
+        }
+
+        history.readSnapshot(in);
+        premiumStarts = in.readInts();
+        premiumEnds = in.readInts();
+
+        AudioFile file = (AudioFile) in.readReference();
+        AudioCollection collection = (AudioCollection) in.readReference();
+        nowPlaying.moveFile(this, indexedFile, file);
+        nowPlaying.moveCollection(this, indexedCollection, collection);
+        indexedFile = file;
+        indexedCollection = collection;
+
+        lastSync = in.readInt();
+        suspended = in.readBoolean();
+        scheduledDue = in.readInt();
+        if (scheduledDue != IDLE) {
+            scheduler.schedule(this, scheduledDue);
+        }
+    }
+
     /**
      * Gets stats.
      *
      * @return the stats
      */
     public PlayerStats getStats() {
+        sync();
         String filename = "";
         int duration = 0;
         if (source != null && source.getAudioFile() != null) {
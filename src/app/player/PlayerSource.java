@@ -2,6 +2,8 @@ package app.player;
 
 import app.audio.Collections.AudioCollection;
 import app.audio.Files.AudioFile;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
 import app.utils.Enums;
 import lombok.Getter;
 import lombok.Setter;
@@ -27,17 +29,27 @@ public class PlayerSource {
     @Getter
     private int remainedDuration;
     private final List<Integer> indices = new ArrayList<>();
-    @Getter @Setter
-    private ArrayList<AudioFile> history = new ArrayList<>();
+    private final ListenHistory history;
+    private AudioFile[] cycle;
+    private long[] cycleStarts;
+    private boolean cycleShuffled;
+    private int cycleVersion;
+
+    private PlayerSource(final ListenHistory history) {
+        this.history = history;
+    }
 
     /**
      * Instantiates a new Player source.
      *
      * @param type      the type
      * @param audioFile the audio file
+     * @param history   the history the played tracks are appended to
      */
-    public PlayerSource(final Enums.PlayerSourceType type, final AudioFile audioFile) {
+    public PlayerSource(final Enums.PlayerSourceType type, final AudioFile audioFile,
+                        final ListenHistory history) {
         this.type = type;
+        this.history = history;
         this.audioFile = audioFile;
         this.remainedDuration = audioFile.getDuration();
         history.add(audioFile);
@@ -48,9 +60,12 @@ public class PlayerSource {
      *
      * @param type            the type
      * @param audioCollection the audio collection
+     * @param history         the history the played tracks are appended to
      */
-    public PlayerSource(final Enums.PlayerSourceType type, final AudioCollection audioCollection) {
+    public PlayerSource(final Enums.PlayerSourceType type, final AudioCollection audioCollection,
+                        final ListenHistory history) {
         this.type = type;
+        this.history = history;
         this.audioCollection = audioCollection;
         this.audioFile = audioCollection.getTrackByIndex(0);
         this.index = 0;
@@ -65,11 +80,14 @@ public class PlayerSource {
      * @param type            the type
      * @param audioCollection the audio collection
      * @param bookmark        the bookmark
+     * @param history         the history the played tracks are appended to
      */
     public PlayerSource(final Enums.PlayerSourceType type,
                         final AudioCollection audioCollection,
-                        final PodcastBookmark bookmark) {
+                        final PodcastBookmark bookmark,
+                        final ListenHistory history) {
         this.type = type;
+        this.history = history;
         this.audioCollection = audioCollection;
         this.index = bookmark.getId();
         this.remainedDuration = bookmark.getTimestamp();
@@ -149,6 +167,109 @@ public class PlayerSource {
         return isPaused;
     }
 
+    /**
+     * Advances the source over a long interval in one step when the repeat mode makes the
+     * tracks loop forever, instead of going through every track boundary. Whole loops of
+     * a repeated collection are recorded in the history as a single run, and the track the
+     * interval ends in is found by a binary search of the start times of the tracks.
+     *
+     * @param elapsedTime the elapsed time, at least the remained duration
+     * @param repeatMode  the repeat mode
+     * @param shuffle     the shuffle
+     * @return if the interval was consumed, false if it has to be simulated track by track
+     */
+    public boolean fastForward(final int elapsedTime, final Enums.RepeatMode repeatMode,
+                               final boolean shuffle) {
+        int elapsed = elapsedTime - remainedDuration;
+
+        if (repeatMode == Enums.RepeatMode.REPEAT_INFINITE
+            || repeatMode == Enums.RepeatMode.REPEAT_CURRENT_SONG) {
+            int duration = audioFile.getDuration();
+            if (duration == 0) {
+                return false;
+            }
+
+            remainedDuration = duration - elapsed % duration;
+            return true;
+        }
+
+        if (repeatMode != Enums.RepeatMode.REPEAT_ALL
+            || type == Enums.PlayerSourceType.LIBRARY) {
+            return false;
+        }
+
+        loadCycle(shuffle);
+        long loopDuration = cycleStarts[cycle.length];
+        if (loopDuration == 0 || elapsed < loopDuration) {
+            return false;
+        }
+
+        int first = ((shuffle ? indexShuffled : index) + 1) % cycle.length;
+        int loops = (int) (elapsed / loopDuration);
+        long offset = cycleStarts[first] + elapsed % loopDuration;
+        int played = loops * cycle.length - first;
+        if (offset >= loopDuration) {
+            offset -= loopDuration;
+            played += cycle.length;
+        }
+
+        int position = trackAt(offset);
+        played += position;
+        history.addLoop(cycle, first, played + 1);
+        if (shuffle) {
+            indexShuffled = position;
+            index = indices.get(position);
+        } else {
+            index = position;
+        }
+        updateAudioFile();
+        remainedDuration = (int) (audioFile.getDuration() - (offset - cycleStarts[position]));
+        return true;
+    }
+
+    /**
+     * Lays out the tracks of one loop of the collection, in the order they are played,
+     * with the time each one starts at from the start of the loop. The layout is kept
+     * until the order or the tracks of the collection change.
+     */
+    private void loadCycle(final boolean shuffle) {
+        if (cycle != null && cycleShuffled == shuffle
+            && cycleVersion == audioCollection.getVersion()) {
+            return;
+        }
+
+        int length = shuffle ? indices.size() : audioCollection.getNumberOfTracks();
+        cycle = new AudioFile[length];
+        cycleStarts = new long[length + 1];
+        for (int i = 0; i < length; i++) {
+            cycle[i] = audioCollection.getTrackByIndex(shuffle ? indices.get(i) : i);
+            cycleStarts[i + 1] = cycleStarts[i] + cycle[i].getDuration();
+        }
+        cycleShuffled = shuffle;
+        cycleVersion = audioCollection.getVersion();
+    }
+
+    /**
+     * Finds the track of the loop playing at a time from the start of the loop.
+     *
+     * @param offset the time, less than the duration of the loop
+     * @return the position of the track in the loop
+     */
+    private int trackAt(final long offset) {
+        int low = 1;
+        int high = cycle.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cycleStarts[middle] > offset) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low - 1;
+    }
+
     /**
      * Sets prev audio file.
      *
@@ -188,6 +309,7 @@ public class PlayerSource {
      */
     public void generateShuffleOrder(final Integer seed) {
         indices.clear();
+        cycle = null;
         Random random = new Random(seed);
         for (int i = 0; i < audioCollection.getNumberOfTracks(); i++) {
             indices.add(i);
@@ -224,6 +346,40 @@ public class PlayerSource {
         }
     }
 
+    /**
+     * Writes the source to a snapshot.
+     *
+     * @param out the snapshot
+     */
+    void writeSnapshot(final SnapshotOutput out) {
+        out.writeInt(type.ordinal());
+        out.writeReference(audioCollection);
+        out.writeReference(audioFile);
+        out.writeInt(index);
+        out.writeInt(indexShuffled);
+        out.writeInt(remainedDuration);
+        out.writeInts(indices);
+    }
+
+    /**
+     * Reads a source back from a snapshot, without adding anything to the history.
+     *
+     * @param in      the snapshot
+     * @param history the history the played tracks are appended to
+     * @return the source
+     */
+    static PlayerSource readSnapshot(final SnapshotInput in, final ListenHistory history) {
+        PlayerSource source = new PlayerSource(history);
+        source.type = Enums.PlayerSourceType.values()[in.readInt()];
+        source.audioCollection = (AudioCollection) in.readReference();
+        source.audioFile = (AudioFile) in.readReference();
+        source.index = in.readInt();
+        source.indexShuffled = in.readInt();
+        source.remainedDuration = in.readInt();
+        source.indices.addAll(in.readInts());
+        return source;
+    }
+
     private void updateAudioFile() {
         setAudioFile(audioCollection.getTrackByIndex(index));
     }
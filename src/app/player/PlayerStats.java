@@ -1,10 +1,14 @@
 package app.player;
 
+import app.commandHandle.OutputWritable;
 import app.utils.Enums;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Getter;
 
+import java.io.IOException;
+
 @Getter
-public class PlayerStats {
+public class PlayerStats implements OutputWritable {
     private final String name;
     private final int remainedTime;
     private String repeat;
@@ -42,4 +46,13 @@ public class PlayerStats {
         this.shuffle = shuffle;
     }
 
+    @Override
+    public void writeTo(final JsonGenerator generator) throws IOException {
+        generator.writeStringField("name", name);
+        generator.writeNumberField("remainedTime", remainedTime);
+        generator.writeStringField("repeat", repeat);
+        generator.writeBooleanField("shuffle", shuffle);
+        generator.writeBooleanField("paused", paused);
+    }
+
 }
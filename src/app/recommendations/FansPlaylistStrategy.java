@@ -25,7 +25,8 @@ public class FansPlaylistStrategy extends RecommendationStrategy {
     @Override
     public LibraryEntry getRecommendation() {
         Artist artist = (Artist) super.getUserAbstract();
-        Analytics.updateFans(artist, Admin.getInstance().getUsers());
+        Admin admin = artist.getAdmin();
+        Analytics.updateFans(artist);
         List<String> topFans = artist.getStats().getListTopFans();
 
         if (topFans.isEmpty()) {
@@ -33,20 +34,15 @@ public class FansPlaylistStrategy extends RecommendationStrategy {
         }
 
         Set<Song> uniqueSongs = new HashSet<>();
-        Admin admin = Admin.getInstance();
 
         topFans.stream().limit(5).forEach(username -> {
             User user = admin.getUser(username);
-            List<Song> likedSongs = user.getLikedSongs().stream()
-                    .sorted(Comparator.comparing(Song::getLikes).reversed())
-                    .limit(5)
-                    .toList();
-            uniqueSongs.addAll(likedSongs);
+            uniqueSongs.addAll(user.getTopLikedSongs(5));
         });
 
         Playlist fansPlaylist = new Playlist(artist.getUsername() + " Fan Club recommendations",
                 "None");
-        fansPlaylist.getSongs().addAll(uniqueSongs);
+        uniqueSongs.forEach(fansPlaylist::addSong);
 
         super.setLastRecommendation(fansPlaylist);
         super.setLastRecommendationType("playlist");
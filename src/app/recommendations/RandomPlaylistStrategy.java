@@ -1,69 +1,48 @@
 package app.recommendations;
 
+import app.Admin;
 import app.audio.Collections.Playlist;
 import app.audio.Files.Song;
 import app.user.User;
 import app.user.UserAbstract;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Class that implements the strategy for the random playlist recommendation.
  */
 public class RandomPlaylistStrategy extends RecommendationStrategy {
+    private static final List<Integer> LIMITS = List.of(5, 3, 2);
+
     public RandomPlaylistStrategy(final UserAbstract currentUser) {
         super(currentUser);
     }
 
-    private void updateGenreCount(final Map<String, Integer> genreCount, final List<Song> songs) {
-        for (Song song : songs) {
-            String genre = song.getGenre();
-            genreCount.put(genre, genreCount.getOrDefault(genre, 0) + 1);
-        }
-    }
-
     /**
      * Calculates the random playlist recommendation for the current user.
      * @return
      */
     @Override
     public Playlist getRecommendation() {
-        UserAbstract user = super.getUserAbstract();
-        List<Song> likedSongs = ((User) user).getLikedSongs();
-        List<Playlist> playlists = ((User) user).getPlaylists();
-        List<Playlist> followedPlaylists = ((User) user).getFollowedPlaylists();
-
-        HashMap<String, Integer> genreCount = new HashMap<>();
+        User user = (User) super.getUserAbstract();
+        Admin admin = user.getAdmin();
 
-        updateGenreCount(genreCount, likedSongs);
-        playlists.forEach(playlist -> updateGenreCount(genreCount, playlist.getSongs()));
-        followedPlaylists.forEach(playlist -> updateGenreCount(genreCount, playlist.getSongs()));
-
-        if (genreCount.isEmpty()) {
+        List<String> topGenres = admin.getGenreProfiles().topGenres(user, LIMITS.size());
+        if (topGenres.isEmpty()) {
             return null;
         }
 
-        List<String> topGenres = genreCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(3)
-                .collect(Collectors.toList());
-
         Map<String, List<Song>> songsByGenre = new HashMap<>();
-        for (String genre : topGenres) {
-            List<Song> songs = likedSongs.stream()
-                    .filter(song -> song.getGenre().equals(genre))
-                    .distinct()
-                    .sorted(Comparator.comparing(Song::getLikes).reversed())
-                    .collect(Collectors.toList());
-            songsByGenre.put(genre, songs);
+        for (int i = 0; i < topGenres.size(); i++) {
+            String genre = topGenres.get(i);
+            songsByGenre.put(genre, admin.getLeaderboards().topLikedSongs(user, genre,
+                    LIMITS.get(i)));
         }
 
         String username = user.getUsername();
         Playlist recommendedPlaylist = new Playlist(username + "'s recommendations", "None");
 
-        addTopSongs(recommendedPlaylist, songsByGenre, topGenres, Arrays.asList(5, 3, 2));
+        addTopSongs(recommendedPlaylist, songsByGenre, topGenres, LIMITS);
 
         super.setLastRecommendation(recommendedPlaylist);
         super.setLastRecommendationType("playlist");
@@ -78,7 +57,7 @@ public class RandomPlaylistStrategy extends RecommendationStrategy {
             songsByGenre.getOrDefault(genre, Collections.emptyList())
                     .stream()
                     .limit(limit)
-                    .forEach(playlist.getSongs()::add);
+                    .forEach(playlist::addSong);
         }
     }
 }
@@ -1,14 +1,11 @@
 package app.recommendations;
 
-import app.Admin;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Song;
 import app.audio.LibraryEntry;
 import app.user.User;
 import app.user.UserAbstract;
 
-import java.util.ArrayList;
-
 import java.util.List;
 import java.util.Random;
 
@@ -44,16 +41,8 @@ public class RandomSongStrategy extends RecommendationStrategy {
             return null;
         }
 
-        String currentGenre = ((Song) currentAudio).getGenre();
-
-        List<Song> allSongs = new ArrayList<>(Admin.getInstance().getSongs());
-        List<Song> sameGenreSongs = new ArrayList<>();
-        for (Song song : allSongs) {
-            if (song.getGenre().equals(currentGenre)) {
-                sameGenreSongs.add(song);
-            }
-        }
-
+        List<Song> sameGenreSongs = user.getAdmin().getSearchIndex()
+                .getSongsOfGenre(((Song) currentAudio).getGenreId());
         if (sameGenreSongs.isEmpty()) {
             return null;
         }
@@ -0,0 +1,108 @@
+package app.searchBar;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Case-folded index of the names of one type of searchable entries, as a tree of their
+ * characters: the names starting with a prefix are the ones under the node the prefix
+ * leads to, so a prefix search is a walk down the prefix instead of a scan of the whole
+ * catalog. Every entry carries a rank and the results come back ordered by it, which lets
+ * the index reproduce the order of the lists the entries are shown from. Every node keeps
+ * the entries under it sorted by rank, so the results are read from the node as they are
+ * needed, and a search that only needs the first few results stops early whatever the
+ * number of names starting with the prefix.
+ *
+ * @param <T> LibraryEntry or ContentCreator.
+ */
+public final class PrefixIndex<T> {
+    private final Function<T, String> name;
+    private final Map<T, Long> ranks = new IdentityHashMap<>();
+    private final Node root = new Node();
+
+    /**
+     * Instantiates a new Prefix index.
+     *
+     * @param name gives the name an entry is searched by
+     */
+    public PrefixIndex(final Function<T, String> name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param entry the entry
+     * @param rank  the position of the entry among the results
+     */
+    public void add(final T entry, final long rank) {
+        ranks.put(entry, rank);
+
+        String key = fold(name.apply(entry));
+        Node node = root;
+        node.entries.add(entry);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), character -> new Node());
+            node.entries.add(entry);
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param entry the entry
+     */
+    public void remove(final T entry) {
+        if (!ranks.containsKey(entry)) {
+            return;
+        }
+
+        String key = fold(name.apply(entry));
+        Node node = root;
+        node.entries.remove(entry);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            child.entries.remove(entry);
+            if (child.entries.isEmpty()) {
+                node.children.remove(key.charAt(i));
+                break;
+            }
+            node = child;
+        }
+        ranks.remove(entry);
+    }
+
+    /**
+     * Gets the entries whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return the entries, ordered by rank
+     */
+    public Iterator<T> startingWith(final String prefix) {
+        String folded = fold(prefix);
+        Node node = root;
+        for (int i = 0; i < folded.length() && node != null; i++) {
+            node = node.children.get(folded.charAt(i));
+        }
+
+        return node == null ? Collections.emptyIterator()
+                : Collections.unmodifiableSet(node.entries).iterator();
+    }
+
+    private static String fold(final String value) {
+        return value.toLowerCase();
+    }
+
+    private final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final NavigableSet<T> entries =
+                new TreeSet<>(Comparator.comparingLong(ranks::get));
+    }
+}
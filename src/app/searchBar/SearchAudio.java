@@ -1,42 +1,54 @@
 package app.searchBar;
 
+import app.Admin;
 import app.audio.LibraryEntry;
-import app.searchBar.filters.FilterUtils;
+import app.searchBar.filters.FilterPlan;
 import app.searchBar.filters.Filters;
+import app.searchBar.filters.InvertedIndex;
 
 import java.util.List;
 
-import static app.searchBar.filters.FilterUtils.filterByPlaylistVisibility;
-
 /**
  * Abstract class for searching an audio file.
  */
 public abstract class SearchAudio extends SearchBase<LibraryEntry> {
-    public SearchAudio(final String user) {
-        super(user);
+    public SearchAudio(final Admin admin, final String user) {
+        super(admin, user);
+    }
+
+    /**
+     * Gets the inverted index of the searched entries, if they have one.
+     * @return the inverted index or null
+     */
+    protected InvertedIndex fetchInvertedIndex() {
+        return null;
     }
 
     /**
-     * Specific implementation of search for audio files.
+     * Specific implementation of search for audio files. The entries are fetched by name
+     * when there is a name filter, or straight from the inverted index when some of the
+     * filters are indexed, and the plan compiled from the filters is run over them until
+     * there are enough results.
      * @param type
      * @param filters
      * @return
      */
     @Override
     public List<LibraryEntry> search(final String type, final Filters filters) {
-        List<LibraryEntry> entries = fetchEntries();
+        FilterPlan plan = FilterPlan.compile(filters, fetchInvertedIndex());
 
         if ("playlist".equals(type)) {
-            entries = filterByPlaylistVisibility(entries, user);
+            plan.visibleTo(user);
         }
 
-        entries = FilterUtils.applyFilters(entries, filters);
-
-        while (entries.size() > MAX_RESULTS) {
-            entries.remove(entries.size() - 1);
+        if (filters.getName() != null) {
+            this.results = collect(fetchEntries(filters.getName()), plan);
+        } else if (plan.isIndexed()) {
+            this.results = collect(plan.execute(), entry -> true);
+        } else {
+            this.results = collect(fetchEntries(), plan);
         }
 
-        this.results = entries;
         this.lastSearchType = type;
         return this.results;
     }
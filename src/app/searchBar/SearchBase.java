@@ -1,10 +1,15 @@
 package app.searchBar;
 
+import app.Admin;
 import app.searchBar.filters.Filters;
 import app.searchBar.strategies.SearchStrategy;
+import app.snapshot.SnapshotInput;
+import app.snapshot.SnapshotOutput;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Abstract class for search strategies. It contains the common methods and attributes
@@ -12,21 +17,50 @@ import java.util.List;
  */
 public abstract class SearchBase<T> implements SearchStrategy<T> {
     protected List<T> results;
+    protected final Admin admin;
     protected final String user;
     protected static final Integer MAX_RESULTS = 5;
     protected String lastSearchType;
     protected T lastSelected;
 
-    public SearchBase(final String user) {
+    public SearchBase(final Admin admin, final String user) {
+        this.admin = admin;
         this.user = user;
         this.results = new ArrayList<>();
     }
 
     /**
      * Fetches all the entries from the library
-     * @return a list of entries
+     * @return the entries
+     */
+    protected abstract Iterator<? extends T> fetchEntries();
+
+    /**
+     * Fetches the entries whose name starts with the given prefix, ignoring case
+     * @param name the prefix of the name
+     * @return the entries, in the same order as in the library
+     */
+    protected abstract Iterator<? extends T> fetchEntries(String name);
+
+    /**
+     * Collects the first entries that pass the filter, stopping as soon as there are
+     * MAX_RESULTS of them, so the rest of the entries are never looked at
+     * @param entries the entries, in the order of the results
+     * @param filter the filter
+     * @return a list of at most MAX_RESULTS entries
      */
-    protected abstract List<T> fetchEntries();
+    protected List<T> collect(final Iterator<? extends T> entries,
+                              final Predicate<? super T> filter) {
+        List<T> found = new ArrayList<>();
+        while (found.size() < MAX_RESULTS && entries.hasNext()) {
+            T entry = entries.next();
+            if (filter.test(entry)) {
+                found.add(entry);
+            }
+        }
+
+        return found;
+    }
 
     /**
      * Searches for the entries that match the filters
@@ -77,4 +111,29 @@ public abstract class SearchBase<T> implements SearchStrategy<T> {
     public String getLastSearchType() {
         return this.lastSearchType;
     }
+
+    /**
+     * Writes the results and the selection to a snapshot
+     * @param out the snapshot
+     */
+    public void writeSnapshot(final SnapshotOutput out) {
+        out.writeString(lastSearchType);
+        out.writeInt(results.size());
+        results.forEach(out::writeReference);
+        out.writeReference(lastSelected);
+    }
+
+    /**
+     * Reads the results and the selection back from a snapshot
+     * @param in the snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public void readSnapshot(final SnapshotInput in) {
+        lastSearchType = in.readString();
+        results = new ArrayList<>();
+        for (int count = in.readInt(); count > 0; count--) {
+            results.add((T) in.readReference());
+        }
+        lastSelected = (T) in.readReference();
+    }
 }
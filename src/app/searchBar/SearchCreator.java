@@ -1,16 +1,18 @@
 package app.searchBar;
 
+import app.Admin;
 import app.searchBar.filters.Filters;
 import app.user.ContentCreator;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Abstract class for searching a content creator.
  */
 public abstract class SearchCreator extends SearchBase<ContentCreator> {
-    public SearchCreator(final String user) {
-        super(user);
+    public SearchCreator(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
@@ -21,19 +23,11 @@ public abstract class SearchCreator extends SearchBase<ContentCreator> {
      */
     @Override
     public List<ContentCreator> search(final String type, final Filters filters) {
-        List<ContentCreator> entries = fetchEntries();
-
-        if (filters.getName() != null) {
-            entries.removeIf(contentCreator -> !contentCreator.getUsername().toLowerCase()
-                    .startsWith(filters.getName().toLowerCase()));
-        }
-
-        while (entries.size() > MAX_RESULTS) {
-            entries.remove(entries.size() - 1);
-        }
+        Iterator<? extends ContentCreator> entries = filters.getName() != null
+                ? fetchEntries(filters.getName()) : fetchEntries();
 
         this.lastSearchType = type;
-        this.results = entries;
-        return entries;
+        this.results = collect(entries, entry -> true);
+        return this.results;
     }
 }
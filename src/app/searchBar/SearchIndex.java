@@ -0,0 +1,177 @@
+package app.searchBar;
+
+import app.audio.Collections.Album;
+import app.audio.Collections.Playlist;
+import app.audio.Collections.Podcast;
+import app.audio.Files.Song;
+import app.audio.LibraryEntry;
+import app.searchBar.filters.InvertedIndex;
+import app.user.ContentCreator;
+import app.user.UserAbstract;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Name indexes of everything that can be searched, one per type of search, plus the
+ * inverted index the song filters run against. Entries are ranked the way the platform
+ * lists them: songs and podcasts in the order they were added, albums and playlists
+ * grouped by owner in the order the owners signed up, and creators in the order they
+ * signed up. Songs are also kept by genre, in catalog order, for the recommendations.
+ */
+public final class SearchIndex {
+    private static final int OWNER_SHIFT = 32;
+
+    @Getter
+    private final PrefixIndex<LibraryEntry> songs = new PrefixIndex<>(LibraryEntry::getName);
+    @Getter
+    private final PrefixIndex<LibraryEntry> albums = new PrefixIndex<>(LibraryEntry::getName);
+    @Getter
+    private final PrefixIndex<LibraryEntry> playlists =
+            new PrefixIndex<>(LibraryEntry::getName);
+    @Getter
+    private final PrefixIndex<LibraryEntry> podcasts = new PrefixIndex<>(LibraryEntry::getName);
+    @Getter
+    private final PrefixIndex<ContentCreator> artists =
+            new PrefixIndex<>(UserAbstract::getUsername);
+    @Getter
+    private final PrefixIndex<ContentCreator> hosts =
+            new PrefixIndex<>(UserAbstract::getUsername);
+    @Getter
+    private final InvertedIndex songFilters = new InvertedIndex();
+    private final List<List<Song>> genres = new ArrayList<>();
+    private final Map<String, Long> accountRanks = new HashMap<>();
+    private long nextAccountRank;
+    private long nextEntryRank;
+
+    /**
+     * Registers a new account, indexing it if it is a content creator.
+     *
+     * @param account the account
+     */
+    public void addAccount(final UserAbstract account) {
+        long rank = nextAccountRank++;
+        accountRanks.put(account.getUsername(), rank);
+
+        switch (account.userType()) {
+            case "artist" -> artists.add((ContentCreator) account, rank);
+            case "host" -> hosts.add((ContentCreator) account, rank);
+            default -> { }
+        }
+    }
+
+    /**
+     * Removes an account.
+     *
+     * @param account the account
+     */
+    public void removeAccount(final UserAbstract account) {
+        accountRanks.remove(account.getUsername());
+
+        switch (account.userType()) {
+            case "artist" -> artists.remove((ContentCreator) account);
+            case "host" -> hosts.remove((ContentCreator) account);
+            default -> { }
+        }
+    }
+
+    /**
+     * Adds a song.
+     *
+     * @param song the song
+     */
+    public void addSong(final Song song) {
+        songs.add(song, nextEntryRank++);
+        songFilters.add(song);
+        if (song.getGenreId() >= 0) {
+            while (genres.size() <= song.getGenreId()) {
+                genres.add(new ArrayList<>());
+            }
+            genres.get(song.getGenreId()).add(song);
+        }
+    }
+
+    /**
+     * Removes a song.
+     *
+     * @param song the song
+     */
+    public void removeSong(final Song song) {
+        songs.remove(song);
+        songFilters.remove(song);
+        if (song.getGenreId() >= 0 && song.getGenreId() < genres.size()) {
+            genres.get(song.getGenreId()).remove(song);
+        }
+    }
+
+    /**
+     * Gets the songs of a genre, in the order they were added to the catalog.
+     *
+     * @param genreId the id of the genre, see {@link Song#getGenreId()}
+     * @return the songs, not to be modified
+     */
+    public List<Song> getSongsOfGenre(final int genreId) {
+        return genreId >= 0 && genreId < genres.size() ? genres.get(genreId) : List.of();
+    }
+
+    /**
+     * Adds an album, after the other albums of its artist.
+     *
+     * @param album the album
+     */
+    public void addAlbum(final Album album) {
+        albums.add(album, ownedRank(album));
+    }
+
+    /**
+     * Removes an album.
+     *
+     * @param album the album
+     */
+    public void removeAlbum(final Album album) {
+        albums.remove(album);
+    }
+
+    /**
+     * Adds a playlist, after the other playlists of its owner.
+     *
+     * @param playlist the playlist
+     */
+    public void addPlaylist(final Playlist playlist) {
+        playlists.add(playlist, ownedRank(playlist));
+    }
+
+    /**
+     * Removes a playlist.
+     *
+     * @param playlist the playlist
+     */
+    public void removePlaylist(final Playlist playlist) {
+        playlists.remove(playlist);
+    }
+
+    /**
+     * Adds a podcast.
+     *
+     * @param podcast the podcast
+     */
+    public void addPodcast(final Podcast podcast) {
+        podcasts.add(podcast, nextEntryRank++);
+    }
+
+    /**
+     * Removes a podcast.
+     *
+     * @param podcast the podcast
+     */
+    public void removePodcast(final Podcast podcast) {
+        podcasts.remove(podcast);
+    }
+
+    private long ownedRank(final LibraryEntry entry) {
+        return (accountRanks.get(entry.getOwner()) << OWNER_SHIFT) | nextEntryRank++;
+    }
+}
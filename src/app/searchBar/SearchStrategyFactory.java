@@ -1,5 +1,6 @@
 package app.searchBar;
 
+import app.Admin;
 import app.searchBar.strategies.SearchAlbumStrategy;
 import app.searchBar.strategies.SearchArtistStrategy;
 import app.searchBar.strategies.SearchHostStrategy;
@@ -8,18 +9,21 @@ import app.searchBar.strategies.SearchPodcastStrategy;
 import app.searchBar.strategies.SearchSongStrategy;
 import app.searchBar.strategies.SearchStrategy;
 import app.utils.Enums;
-import lombok.Getter;
 
 /**
- * Factory class for search strategies. As there is no need for multiple instances,
- * this is designed as a Singleton to save on memory usage.
+ * Factory class for search strategies. There is one factory for every Admin, so the
+ * strategies it makes search the state of the Admin that owns it.
  */
 public final class SearchStrategyFactory {
-    private String type;
-    @Getter
-    private static SearchStrategyFactory instance = new SearchStrategyFactory();
+    private final Admin admin;
 
-    private SearchStrategyFactory() { }
+    /**
+     * Instantiates a new Search strategy factory.
+     * @param admin the Admin whose state is searched
+     */
+    public SearchStrategyFactory(final Admin admin) {
+        this.admin = admin;
+    }
 
     /**
      * Returns a search strategy based on the type of search and user
@@ -28,14 +32,13 @@ public final class SearchStrategyFactory {
      * @return A specific SearchStrategy instance based on the search type
      */
     public SearchStrategy<?> getSearchStrategy(final String typeAudio, final String user) {
-        this.type = typeAudio;
-        return switch (Enums.SearchType.valueOf(type.toUpperCase())) {
-            case PODCAST -> new SearchPodcastStrategy(user);
-            case SONG -> new SearchSongStrategy(user);
-            case PLAYLIST -> new SearchPlaylistStrategy(user);
-            case ALBUM -> new SearchAlbumStrategy(user);
-            case ARTIST -> new SearchArtistStrategy(user);
-            case HOST -> new SearchHostStrategy(user);
+        return switch (Enums.SearchType.valueOf(typeAudio.toUpperCase())) {
+            case PODCAST -> new SearchPodcastStrategy(admin, user);
+            case SONG -> new SearchSongStrategy(admin, user);
+            case PLAYLIST -> new SearchPlaylistStrategy(admin, user);
+            case ALBUM -> new SearchAlbumStrategy(admin, user);
+            case ARTIST -> new SearchArtistStrategy(admin, user);
+            case HOST -> new SearchHostStrategy(admin, user);
             default -> null;
         };
     }
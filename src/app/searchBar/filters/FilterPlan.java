@@ -0,0 +1,213 @@
+package app.searchBar.filters;
+
+import app.audio.LibraryEntry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Execution plan of the filters of a search. When an inverted index is available, the
+ * filters it covers are answered from their posting lists, walking the smallest one and
+ * probing the others, and only the other filters are checked entry by entry, the cheap
+ * ones first. Entries are tested one at a time, so the search can stop as soon as it has
+ * enough results. The name filter is not part of the plan, the entries are fetched by
+ * name from the search index instead.
+ */
+public final class FilterPlan implements Predicate<LibraryEntry> {
+    private static final int CHEAP = 0;
+    private static final int COSTLY = 1;
+
+    private final InvertedIndex index;
+    private final List<BitSet> postings = new ArrayList<>();
+    private final List<Check> checks = new ArrayList<>();
+
+    private FilterPlan(final InvertedIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Compiles the filters of a search.
+     *
+     * @param filters the filters
+     * @param index   the inverted index of the searched entries, or null if there is none
+     * @return the plan
+     */
+    public static FilterPlan compile(final Filters filters, final InvertedIndex index) {
+        FilterPlan plan = new FilterPlan(index);
+
+        if (filters.getAlbum() != null) {
+            plan.add(InvertedIndex::album, filters.getAlbum(),
+                    entry -> entry.matchesAlbum(filters.getAlbum()));
+        }
+
+        if (filters.getTags() != null && index == null) {
+            plan.check(COSTLY, entry -> entry.matchesTags(filters.getTags()));
+        } else if (filters.getTags() != null) {
+            filters.getTags().forEach(tag -> plan.postings.add(index.tag(tag)));
+        }
+
+        if (filters.getLyrics() != null) {
+            plan.check(COSTLY, entry -> entry.matchesLyrics(filters.getLyrics()));
+        }
+
+        if (filters.getGenre() != null) {
+            plan.add(InvertedIndex::genre, filters.getGenre(),
+                    entry -> entry.matchesGenre(filters.getGenre()));
+        }
+
+        if (filters.getReleaseYear() != null) {
+            plan.check(CHEAP, entry -> entry.matchesReleaseYear(filters.getReleaseYear()));
+        }
+
+        if (filters.getArtist() != null) {
+            plan.add(InvertedIndex::artist, filters.getArtist(),
+                    entry -> entry.matchesArtist(filters.getArtist()));
+        }
+
+        if (filters.getOwner() != null) {
+            plan.add(InvertedIndex::artist, filters.getOwner(),
+                    entry -> entry.matchesOwner(filters.getOwner()));
+        }
+
+        if (filters.getFollowers() != null) {
+            plan.check(CHEAP, entry -> entry.matchesFollowers(filters.getFollowers()));
+        }
+
+        if (filters.getDescription() != null) {
+            plan.check(CHEAP, entry -> entry.matchesDescription(filters.getDescription()));
+        }
+
+        plan.postings.sort(Comparator.comparingInt(BitSet::cardinality));
+        return plan;
+    }
+
+    /**
+     * Only lets through the entries the given user can see.
+     *
+     * @param user the user
+     * @return the plan
+     */
+    public FilterPlan visibleTo(final String user) {
+        check(CHEAP, entry -> entry.isVisibleToUser(user));
+        return this;
+    }
+
+    /**
+     * Checks if some of the filters are answered by the inverted index.
+     *
+     * @return if the plan uses the inverted index
+     */
+    public boolean isIndexed() {
+        return !postings.isEmpty();
+    }
+
+    /**
+     * Checks if an entry passes every filter.
+     *
+     * @param entry the entry
+     * @return if the entry passes
+     */
+    @Override
+    public boolean test(final LibraryEntry entry) {
+        if (isIndexed()) {
+            int slot = index.slot(entry);
+            if (slot < 0 || !inPostings(slot, 0)) {
+                return false;
+            }
+        }
+
+        return passesChecks(entry);
+    }
+
+    /**
+     * Runs the plan over every entry of the inverted index, lazily.
+     *
+     * @return the entries that pass every filter, in library order
+     */
+    public Iterator<LibraryEntry> execute() {
+        BitSet smallest = postings.get(0);
+
+        return new Iterator<>() {
+            private int slot = advance(smallest.nextSetBit(0));
+
+            @Override
+            public boolean hasNext() {
+                return slot >= 0;
+            }
+
+            @Override
+            public LibraryEntry next() {
+                if (slot < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                LibraryEntry entry = index.song(slot);
+                slot = advance(smallest.nextSetBit(slot + 1));
+                return entry;
+            }
+
+            private int advance(final int from) {
+                int next = from;
+                while (next >= 0 && (!inPostings(next, 1) || !passesChecks(index.song(next)))) {
+                    next = smallest.nextSetBit(next + 1);
+                }
+                return next;
+            }
+        };
+    }
+
+    private void add(final Posting posting, final String value,
+                     final Predicate<LibraryEntry> predicate) {
+        if (index != null) {
+            postings.add(posting.lookup(index, value));
+        } else {
+            check(CHEAP, predicate);
+        }
+    }
+
+    private void check(final int cost, final Predicate<LibraryEntry> predicate) {
+        int position = checks.size();
+        while (position > 0 && checks.get(position - 1).cost > cost) {
+            position--;
+        }
+        checks.add(position, new Check(cost, predicate));
+    }
+
+    private boolean inPostings(final int slot, final int from) {
+        for (int i = from; i < postings.size(); i++) {
+            if (!postings.get(i).get(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean passesChecks(final LibraryEntry entry) {
+        for (Check check : checks) {
+            if (!check.predicate.test(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Posting {
+        BitSet lookup(InvertedIndex index, String value);
+    }
+
+    private static final class Check {
+        private final int cost;
+        private final Predicate<LibraryEntry> predicate;
+
+        private Check(final int cost, final Predicate<LibraryEntry> predicate) {
+            this.cost = cost;
+            this.predicate = predicate;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package app.searchBar.filters;
+
+import app.audio.Files.Song;
+import app.audio.LibraryEntry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of the songs, with a posting list per album, tag, genre and artist.
+ * Every song gets a slot, in the order the songs were added, and a posting list is the
+ * bitmap of the slots of the songs it holds, so walking it gives the songs in library
+ * order. Slots are never reused. Albums, genres and artists are compared ignoring case,
+ * like the filters do, and tags are compared lowercased.
+ */
+public final class InvertedIndex {
+    private static final BitSet EMPTY = new BitSet();
+
+    private final List<Song> songs = new ArrayList<>();
+    private final Map<Song, Integer> slots = new IdentityHashMap<>();
+    private final Map<String, BitSet> albums = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, BitSet> genres = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, BitSet> artists = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, BitSet> tags = new HashMap<>();
+
+    /**
+     * Adds a song to the posting lists of its album, tags, genre and artist.
+     *
+     * @param song the song
+     */
+    public void add(final Song song) {
+        int slot = songs.size();
+        songs.add(song);
+        slots.put(song, slot);
+
+        post(albums, song.getAlbum(), slot, true);
+        post(genres, song.getGenre(), slot, true);
+        post(artists, song.getArtist(), slot, true);
+        if (song.getTags() != null) {
+            song.getTags().forEach(tag -> post(tags, tag.toLowerCase(), slot, true));
+        }
+    }
+
+    /**
+     * Removes a song from every posting list.
+     *
+     * @param song the song
+     */
+    public void remove(final Song song) {
+        Integer slot = slots.remove(song);
+        if (slot == null) {
+            return;
+        }
+
+        songs.set(slot, null);
+        post(albums, song.getAlbum(), slot, false);
+        post(genres, song.getGenre(), slot, false);
+        post(artists, song.getArtist(), slot, false);
+        if (song.getTags() != null) {
+            song.getTags().forEach(tag -> post(tags, tag.toLowerCase(), slot, false));
+        }
+    }
+
+    /**
+     * Gets the posting list of an album.
+     *
+     * @param album the album
+     * @return the posting list, not to be modified
+     */
+    public BitSet album(final String album) {
+        return albums.getOrDefault(album, EMPTY);
+    }
+
+    /**
+     * Gets the posting list of a genre.
+     *
+     * @param genre the genre
+     * @return the posting list, not to be modified
+     */
+    public BitSet genre(final String genre) {
+        return genres.getOrDefault(genre, EMPTY);
+    }
+
+    /**
+     * Gets the posting list of an artist.
+     *
+     * @param artist the artist
+     * @return the posting list, not to be modified
+     */
+    public BitSet artist(final String artist) {
+        return artists.getOrDefault(artist, EMPTY);
+    }
+
+    /**
+     * Gets the posting list of a tag.
+     *
+     * @param tag the tag
+     * @return the posting list, not to be modified
+     */
+    public BitSet tag(final String tag) {
+        return tags.getOrDefault(tag.toLowerCase(), EMPTY);
+    }
+
+    /**
+     * Gets the song in a slot.
+     *
+     * @param slot the slot
+     * @return the song
+     */
+    public Song song(final int slot) {
+        return songs.get(slot);
+    }
+
+    /**
+     * Gets the slot of a song.
+     *
+     * @param song the song
+     * @return the slot, or -1 if the song is not indexed
+     */
+    public int slot(final LibraryEntry song) {
+        return slots.getOrDefault(song, -1);
+    }
+
+    private static void post(final Map<String, BitSet> postings, final String key,
+                             final int slot, final boolean present) {
+        if (key == null) {
+            return;
+        }
+
+        if (present) {
+            postings.computeIfAbsent(key, value -> new BitSet()).set(slot);
+            return;
+        }
+
+        BitSet bits = postings.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+}
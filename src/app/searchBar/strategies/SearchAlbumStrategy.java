@@ -4,19 +4,27 @@ import app.Admin;
 import app.audio.LibraryEntry;
 import app.searchBar.SearchAudio;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class SearchAlbumStrategy extends SearchAudio {
-    public SearchAlbumStrategy(final String user) {
-        super(user);
+    public SearchAlbumStrategy(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
      * @return List of albums from library.
      */
     @Override
-    protected List<LibraryEntry> fetchEntries() {
-        return new ArrayList<>(Admin.getInstance().getAlbums());
+    protected Iterator<? extends LibraryEntry> fetchEntries() {
+        return admin.getAlbums().iterator();
+    }
+
+    /**
+     * @param name the prefix of the name
+     * @return List of albums from library whose name starts with the prefix.
+     */
+    @Override
+    protected Iterator<? extends LibraryEntry> fetchEntries(final String name) {
+        return admin.getSearchIndex().getAlbums().startingWith(name);
     }
 }
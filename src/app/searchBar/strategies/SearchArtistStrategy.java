@@ -4,19 +4,27 @@ import app.Admin;
 import app.searchBar.SearchCreator;
 import app.user.ContentCreator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class SearchArtistStrategy extends SearchCreator {
-    public SearchArtistStrategy(final String user) {
-        super(user);
+    public SearchArtistStrategy(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
      * @return List of artists from library.
      */
     @Override
-    protected List<ContentCreator> fetchEntries() {
-        return new ArrayList<>(Admin.getInstance().getArtists());
+    protected Iterator<? extends ContentCreator> fetchEntries() {
+        return admin.getArtists().iterator();
+    }
+
+    /**
+     * @param name the prefix of the name
+     * @return List of artists from library whose name starts with the prefix.
+     */
+    @Override
+    protected Iterator<? extends ContentCreator> fetchEntries(final String name) {
+        return admin.getSearchIndex().getArtists().startingWith(name);
     }
 }
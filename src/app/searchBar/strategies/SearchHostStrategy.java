@@ -4,19 +4,27 @@ import app.Admin;
 import app.searchBar.SearchCreator;
 import app.user.ContentCreator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class SearchHostStrategy extends SearchCreator {
-    public SearchHostStrategy(final String user) {
-        super(user);
+    public SearchHostStrategy(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
      * @return List of hosts from library.
      */
     @Override
-    protected List<ContentCreator> fetchEntries() {
-        return new ArrayList<>(Admin.getInstance().getHosts());
+    protected Iterator<? extends ContentCreator> fetchEntries() {
+        return admin.getHosts().iterator();
+    }
+
+    /**
+     * @param name the prefix of the name
+     * @return List of hosts from library whose name starts with the prefix.
+     */
+    @Override
+    protected Iterator<? extends ContentCreator> fetchEntries(final String name) {
+        return admin.getSearchIndex().getHosts().startingWith(name);
     }
 }
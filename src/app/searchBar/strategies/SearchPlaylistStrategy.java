@@ -4,19 +4,27 @@ import app.Admin;
 import app.audio.LibraryEntry;
 import app.searchBar.SearchAudio;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class SearchPlaylistStrategy extends SearchAudio {
-    public SearchPlaylistStrategy(final String user) {
-        super(user);
+    public SearchPlaylistStrategy(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
      * @return List of playlists from library.
      */
     @Override
-    protected List<LibraryEntry> fetchEntries() {
-        return new ArrayList<>(Admin.getInstance().getPlaylists());
+    protected Iterator<? extends LibraryEntry> fetchEntries() {
+        return admin.getPlaylists().iterator();
+    }
+
+    /**
+     * @param name the prefix of the name
+     * @return List of playlists from library whose name starts with the prefix.
+     */
+    @Override
+    protected Iterator<? extends LibraryEntry> fetchEntries(final String name) {
+        return admin.getSearchIndex().getPlaylists().startingWith(name);
     }
 }
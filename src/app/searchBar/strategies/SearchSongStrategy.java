@@ -3,20 +3,37 @@ package app.searchBar.strategies;
 import app.Admin;
 import app.audio.LibraryEntry;
 import app.searchBar.SearchAudio;
+import app.searchBar.filters.InvertedIndex;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class SearchSongStrategy extends SearchAudio {
-    public SearchSongStrategy(final String user) {
-        super(user);
+    public SearchSongStrategy(final Admin admin, final String user) {
+        super(admin, user);
     }
 
     /**
      * @return List of songs from library.
      */
     @Override
-    protected List<LibraryEntry> fetchEntries() {
-        return new ArrayList<>(Admin.getInstance().getSongs());
+    protected Iterator<? extends LibraryEntry> fetchEntries() {
+        return admin.getSongs().iterator();
+    }
+
+    /**
+     * @param name the prefix of the name
+     * @return List of songs from library whose name starts with the prefix.
+     */
+    @Override
+    protected Iterator<? extends LibraryEntry> fetchEntries(final String name) {
+        return admin.getSearchIndex().getSongs().startingWith(name);
+    }
+
+    /**
+     * @return Inverted index of the songs from library.
+     */
+    @Override
+    protected InvertedIndex fetchInvertedIndex() {
+        return admin.getSearchIndex().getSongFilters();
     }
 }
@@ -0,0 +1,436 @@
+package app.snapshot;
+
+import app.Admin;
+import app.analytics.monetization.ArtistRevenue;
+import app.audio.Collections.Album;
+import app.audio.Collections.Playlist;
+import app.audio.Collections.Podcast;
+import app.audio.Files.Episode;
+import app.audio.Files.Song;
+import app.notifications.Notification;
+import app.user.Artist;
+import app.user.Host;
+import app.user.User;
+import app.user.UserAbstract;
+import app.utils.Enums;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a snapshot written by {@link SnapshotOutput}. The file is memory mapped and decoded
+ * straight from the mapping. Opening the snapshot builds every entity of its tables, the
+ * accounts included, bound to the given Admin; the body is then read in the order it was
+ * written.
+ */
+public final class SnapshotInput {
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7f;
+    private static final int CONTINUATION = 0x80;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final List<Song> songs = new ArrayList<>();
+    private final List<Episode> episodes = new ArrayList<>();
+    private final List<Podcast> podcasts = new ArrayList<>();
+    private final List<Album> albums = new ArrayList<>();
+    private final List<Playlist> playlists = new ArrayList<>();
+    private final List<ArtistRevenue> revenues = new ArrayList<>();
+    private final List<UserAbstract> accounts = new ArrayList<>();
+    private final List<Notification> notifications = new ArrayList<>();
+
+    /**
+     * Opens a snapshot and builds the entities of its tables.
+     *
+     * @param path  the file
+     * @param admin the Admin the accounts are built for
+     * @throws IOException if the file can't be read or is not a snapshot
+     */
+    public SnapshotInput(final Path path, final Admin admin) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != SnapshotOutput.MAGIC) {
+            throw new IOException("Not a snapshot: " + path);
+        } else if (readInt() != SnapshotOutput.VERSION) {
+            throw new IOException("Unsupported snapshot version: " + path);
+        }
+
+        strings = new String[readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        readSongTable(admin);
+        readEpisodeTable();
+        readPodcastTable();
+        readAlbumTable();
+        readPlaylistTable();
+        readRevenueTable();
+        readAccountTable(admin);
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return the value
+     */
+    public int readInt() {
+        int zigzag = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = buffer.get();
+            zigzag |= (next & PAYLOAD_MASK) << shift;
+            shift += PAYLOAD_BITS;
+        } while ((next & CONTINUATION) != 0);
+
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Reads a boolean.
+     *
+     * @return the value
+     */
+    public boolean readBoolean() {
+        return readInt() != 0;
+    }
+
+    /**
+     * Reads a double.
+     *
+     * @return the value
+     */
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @return the string, may be null
+     */
+    public String readString() {
+        int id = readInt();
+        return id == 0 ? null : strings[id - 1];
+    }
+
+    /**
+     * Reads a list of ints.
+     *
+     * @return the values
+     */
+    public ArrayList<Integer> readInts() {
+        int count = readInt();
+        ArrayList<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readInt());
+        }
+        return values;
+    }
+
+    /**
+     * Reads a collection of strings.
+     *
+     * @return the strings, in the order they were written
+     */
+    public ArrayList<String> readStrings() {
+        int count = readInt();
+        ArrayList<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    /**
+     * Reads a map from strings to counts.
+     *
+     * @param counts the map the counts are put in, in the order they were written
+     */
+    public void readCounts(final Map<String, Integer> counts) {
+        int count = readInt();
+        for (int i = 0; i < count; i++) {
+            String key = readString();
+            counts.put(key, readInt());
+        }
+    }
+
+    /**
+     * Reads a reference to a song.
+     *
+     * @return the song, may be null
+     */
+    public Song readSong() {
+        return resolve(songs, readInt());
+    }
+
+    /**
+     * Reads references to songs.
+     *
+     * @return the songs
+     */
+    public ArrayList<Song> readSongs() {
+        int count = readInt();
+        ArrayList<Song> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readSong());
+        }
+        return list;
+    }
+
+    /**
+     * Reads a reference to a podcast.
+     *
+     * @return the podcast, may be null
+     */
+    public Podcast readPodcast() {
+        return resolve(podcasts, readInt());
+    }
+
+    /**
+     * Reads references to podcasts.
+     *
+     * @return the podcasts
+     */
+    public ArrayList<Podcast> readPodcasts() {
+        int count = readInt();
+        ArrayList<Podcast> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readPodcast());
+        }
+        return list;
+    }
+
+    /**
+     * Reads references to albums.
+     *
+     * @return the albums
+     */
+    public ArrayList<Album> readAlbums() {
+        int count = readInt();
+        ArrayList<Album> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(resolve(albums, readInt()));
+        }
+        return list;
+    }
+
+    /**
+     * Reads a reference to a playlist.
+     *
+     * @return the playlist, may be null
+     */
+    public Playlist readPlaylist() {
+        return resolve(playlists, readInt());
+    }
+
+    /**
+     * Reads references to playlists.
+     *
+     * @return the playlists
+     */
+    public ArrayList<Playlist> readPlaylists() {
+        int count = readInt();
+        ArrayList<Playlist> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readPlaylist());
+        }
+        return list;
+    }
+
+    /**
+     * Reads a reference to a revenue ledger.
+     *
+     * @return the revenue, may be null
+     */
+    public ArtistRevenue readRevenue() {
+        return resolve(revenues, readInt());
+    }
+
+    /**
+     * Reads a notification, the same instance every time it was written.
+     *
+     * @return the notification
+     */
+    public Notification readNotification() {
+        int id = readInt();
+        if (id == notifications.size()) {
+            String name = readString();
+            notifications.add(new Notification(name, readString()));
+        }
+
+        return notifications.get(id);
+    }
+
+    /**
+     * Reads a reference to an account.
+     *
+     * @return the account, may be null
+     */
+    public UserAbstract readAccount() {
+        return resolve(accounts, readInt());
+    }
+
+    /**
+     * Reads a reference to any entity of the snapshot.
+     *
+     * @return the song, episode, podcast, album, playlist or account, may be null
+     */
+    public Object readReference() {
+        return switch (SnapshotOutput.Kind.values()[readInt()]) {
+            case SONG -> readSong();
+            case EPISODE -> resolve(episodes, readInt());
+            case PODCAST -> readPodcast();
+            case ALBUM -> resolve(albums, readInt());
+            case PLAYLIST -> readPlaylist();
+            case ACCOUNT -> readAccount();
+            default -> null;
+        };
+    }
+
+    /**
+     * Gets the accounts of the snapshot, in the order of their ids, which is the order
+     * their details are written in.
+     *
+     * @return the accounts
+     */
+    public List<UserAbstract> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Checks if the whole snapshot was read.
+     *
+     * @return if nothing is left to read
+     */
+    public boolean isExhausted() {
+        return !buffer.hasRemaining();
+    }
+
+    private static <T> T resolve(final List<T> table, final int id) {
+        return id == 0 ? null : table.get(id - 1);
+    }
+
+    private Integer readInteger() {
+        return readBoolean() ? readInt() : null;
+    }
+
+    private void readSongTable(final Admin admin) {
+        for (int count = readInt(); count > 0; count--) {
+            String name = readString();
+            Integer duration = readInteger();
+            String album = readString();
+            ArrayList<String> tags = null;
+            int tagCount = readInt();
+            if (tagCount > 0) {
+                tags = new ArrayList<>(tagCount - 1);
+                for (int i = 1; i < tagCount; i++) {
+                    tags.add(readString());
+                }
+            }
+            String lyrics = readString();
+            String genre = readString();
+            Integer releaseYear = readInteger();
+            String artist = readString();
+
+            Song song = new Song(name, duration, album, tags, lyrics, genre, releaseYear, artist,
+                    admin.getSongSymbols());
+            song.setLikes(readInteger());
+            song.setIncome(readDouble());
+            songs.add(song);
+        }
+    }
+
+    private void readEpisodeTable() {
+        for (int count = readInt(); count > 0; count--) {
+            String name = readString();
+            Integer duration = readInteger();
+            String description = readString();
+            episodes.add(new Episode(name, duration, description, readString()));
+        }
+    }
+
+    private void readPodcastTable() {
+        for (int count = readInt(); count > 0; count--) {
+            String name = readString();
+            String owner = readString();
+            List<Episode> list = new ArrayList<>();
+            for (int i = readInt(); i > 0; i--) {
+                list.add(resolve(episodes, readInt()));
+            }
+            podcasts.add(new Podcast(name, owner, list));
+        }
+    }
+
+    private void readAlbumTable() {
+        for (int count = readInt(); count > 0; count--) {
+            String name = readString();
+            String description = readString();
+            String owner = readString();
+            List<Song> list = new ArrayList<>();
+            for (int i = readInt(); i > 0; i--) {
+                list.add(readSong());
+            }
+
+            Album album = new Album(name, description, owner, List.copyOf(list), readInteger());
+            album.setFollowers(readInteger());
+            albums.add(album);
+        }
+    }
+
+    private void readPlaylistTable() {
+        for (int count = readInt(); count > 0; count--) {
+            String name = readString();
+            String owner = readString();
+            Playlist playlist = new Playlist(name, owner, readInt());
+            playlist.setVisibility(Enums.Visibility.values()[readInt()]);
+            playlist.setFollowers(readInteger());
+            for (int i = readInt(); i > 0; i--) {
+                playlist.addSong(readSong());
+            }
+            playlists.add(playlist);
+        }
+    }
+
+    private void readRevenueTable() {
+        for (int count = readInt(); count > 0; count--) {
+            ArtistRevenue revenue = new ArtistRevenue();
+            revenue.setMerchRevenue(readDouble());
+            revenue.setSongRevenue(readDouble());
+            for (int i = readInt(); i > 0; i--) {
+                String song = readString();
+                revenue.getProfitSongs().put(song, readDouble());
+            }
+            revenue.setMostProfitableSong(readString());
+            revenues.add(revenue);
+        }
+    }
+
+    private void readAccountTable(final Admin admin) {
+        for (int count = readInt(); count > 0; count--) {
+            String type = readString();
+            String username = readString();
+            int age = readInt();
+            String city = readString();
+
+            accounts.add(switch (type) {
+                case "user" -> new User(admin, username, age, city);
+                case "artist" -> new Artist(admin, username, age, city);
+                case "host" -> new Host(admin, username, age, city);
+                default -> throw new IllegalArgumentException("Invalid user type!");
+            });
+        }
+    }
+}
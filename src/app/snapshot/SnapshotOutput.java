@@ -0,0 +1,512 @@
+package app.snapshot;
+
+import app.analytics.monetization.ArtistRevenue;
+import app.audio.Collections.Album;
+import app.audio.Collections.Playlist;
+import app.audio.Collections.Podcast;
+import app.audio.Files.Episode;
+import app.audio.Files.Song;
+import app.notifications.Notification;
+import app.user.UserAbstract;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the state of the platform in the binary snapshot format. Strings are written once,
+ * in a table, and referred to by their index. Songs, episodes, podcasts, albums, playlists,
+ * revenues and accounts are given an int id the first time they are referred to and their
+ * definition goes to the table of their kind, so an object shared by several owners is
+ * written once and shared again once read back. Notifications are shared the same way,
+ * though written in the body, where they are first met. Ints are written as zigzag
+ * varints.
+ * <p>
+ * The tables come before the body in the file, leaves before what holds them, so the
+ * reader can build every entity before reading anything that points to it.
+ */
+public final class SnapshotOutput {
+    static final int MAGIC = 0x534e4150;
+    static final int VERSION = 5;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Section stringTable = new Section();
+    private final Table<Song> songs = new Table<>();
+    private final Table<Episode> episodes = new Table<>();
+    private final Table<Podcast> podcasts = new Table<>();
+    private final Table<Album> albums = new Table<>();
+    private final Table<Playlist> playlists = new Table<>();
+    private final Table<ArtistRevenue> revenues = new Table<>();
+    private final Table<UserAbstract> accounts = new Table<>();
+    private final Map<Notification, Integer> notifications = new IdentityHashMap<>();
+    private final Section body = new Section();
+
+    /**
+     * Writes an int.
+     *
+     * @param value the value
+     */
+    public void writeInt(final int value) {
+        body.putInt(value);
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value the value
+     */
+    public void writeBoolean(final boolean value) {
+        body.putInt(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a double.
+     *
+     * @param value the value
+     */
+    public void writeDouble(final double value) {
+        body.putDouble(value);
+    }
+
+    /**
+     * Writes a string, through the string table.
+     *
+     * @param value the string, may be null
+     */
+    public void writeString(final String value) {
+        string(body, value);
+    }
+
+    /**
+     * Writes a list of ints.
+     *
+     * @param values the values
+     */
+    public void writeInts(final List<Integer> values) {
+        body.putInt(values.size());
+        values.forEach(body::putInt);
+    }
+
+    /**
+     * Writes a collection of strings, in iteration order.
+     *
+     * @param values the strings
+     */
+    public void writeStrings(final Collection<String> values) {
+        body.putInt(values.size());
+        values.forEach(value -> string(body, value));
+    }
+
+    /**
+     * Writes a map from strings to counts, in iteration order.
+     *
+     * @param counts the counts
+     */
+    public void writeCounts(final Map<String, Integer> counts) {
+        body.putInt(counts.size());
+        counts.forEach((key, count) -> {
+            string(body, key);
+            body.putInt(count);
+        });
+    }
+
+    /**
+     * Writes a reference to a song.
+     *
+     * @param song the song, may be null
+     */
+    public void writeSong(final Song song) {
+        body.putInt(song(song));
+    }
+
+    /**
+     * Writes references to songs.
+     *
+     * @param list the songs
+     */
+    public void writeSongs(final Collection<Song> list) {
+        body.putInt(list.size());
+        list.forEach(this::writeSong);
+    }
+
+    /**
+     * Writes a reference to a podcast.
+     *
+     * @param podcast the podcast, may be null
+     */
+    public void writePodcast(final Podcast podcast) {
+        body.putInt(podcast(podcast));
+    }
+
+    /**
+     * Writes references to podcasts.
+     *
+     * @param list the podcasts
+     */
+    public void writePodcasts(final List<Podcast> list) {
+        body.putInt(list.size());
+        list.forEach(this::writePodcast);
+    }
+
+    /**
+     * Writes references to albums.
+     *
+     * @param list the albums
+     */
+    public void writeAlbums(final List<Album> list) {
+        body.putInt(list.size());
+        list.forEach(album -> body.putInt(album(album)));
+    }
+
+    /**
+     * Writes a reference to a playlist.
+     *
+     * @param playlist the playlist, may be null
+     */
+    public void writePlaylist(final Playlist playlist) {
+        body.putInt(playlist(playlist));
+    }
+
+    /**
+     * Writes references to playlists.
+     *
+     * @param list the playlists
+     */
+    public void writePlaylists(final Collection<Playlist> list) {
+        body.putInt(list.size());
+        list.forEach(this::writePlaylist);
+    }
+
+    /**
+     * Writes a reference to a revenue ledger.
+     *
+     * @param revenue the revenue, may be null
+     */
+    public void writeRevenue(final ArtistRevenue revenue) {
+        body.putInt(revenue(revenue));
+    }
+
+    /**
+     * Writes a notification. It is written in full the first time and by its id after
+     * that, so a notification shared by feeds and inboxes is shared again once read back.
+     *
+     * @param notification the notification
+     */
+    public void writeNotification(final Notification notification) {
+        Integer id = notifications.get(notification);
+        if (id != null) {
+            body.putInt(id);
+            return;
+        }
+
+        body.putInt(notifications.size());
+        notifications.put(notification, notifications.size());
+        writeString(notification.getName());
+        writeString(notification.getDescription());
+    }
+
+    /**
+     * Writes a reference to an account. The details of the account are not written, the
+     * caller writes them for every account of {@link #getAccounts()}.
+     *
+     * @param account the account, may be null
+     */
+    public void writeAccount(final UserAbstract account) {
+        body.putInt(account(account));
+    }
+
+    /**
+     * Writes a reference to any entity of the snapshot, along with its kind.
+     *
+     * @param entity the song, episode, podcast, album, playlist or account, may be null
+     */
+    public void writeReference(final Object entity) {
+        Kind kind = Kind.of(entity);
+        body.putInt(kind.ordinal());
+
+        switch (kind) {
+            case SONG -> body.putInt(song((Song) entity));
+            case EPISODE -> body.putInt(episode((Episode) entity));
+            case PODCAST -> body.putInt(podcast((Podcast) entity));
+            case ALBUM -> body.putInt(album((Album) entity));
+            case PLAYLIST -> body.putInt(playlist((Playlist) entity));
+            case ACCOUNT -> body.putInt(account((UserAbstract) entity));
+            default -> { }
+        }
+    }
+
+    /**
+     * Gets the accounts referred to so far, in the order of their ids. The list grows as
+     * more accounts are referred to.
+     *
+     * @return the accounts
+     */
+    public List<UserAbstract> getAccounts() {
+        return accounts.entries;
+    }
+
+    /**
+     * Writes the snapshot to a file, replacing it.
+     *
+     * @param path the file
+     * @throws IOException if the file can't be written
+     */
+    public void writeTo(final Path path) throws IOException {
+        Section header = new Section();
+        header.putRaw(MAGIC);
+        header.putInt(VERSION);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, header);
+            write(channel, count(strings.size()), stringTable);
+            write(channel, count(songs.entries.size()), songs.definitions);
+            write(channel, count(episodes.entries.size()), episodes.definitions);
+            write(channel, count(podcasts.entries.size()), podcasts.definitions);
+            write(channel, count(albums.entries.size()), albums.definitions);
+            write(channel, count(playlists.entries.size()), playlists.definitions);
+            write(channel, count(revenues.entries.size()), revenues.definitions);
+            write(channel, count(accounts.entries.size()), accounts.definitions);
+            write(channel, body);
+        }
+    }
+
+    private static Section count(final int count) {
+        Section section = new Section();
+        section.putInt(count);
+        return section;
+    }
+
+    private static void write(final FileChannel channel, final Section... sections)
+            throws IOException {
+        for (Section section : sections) {
+            ByteBuffer buffer = ByteBuffer.wrap(section.bytes, 0, section.length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void string(final Section section, final String value) {
+        if (value == null) {
+            section.putInt(0);
+            return;
+        }
+
+        Integer id = strings.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.put(value, id);
+            stringTable.putBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        section.putInt(id + 1);
+    }
+
+    private int song(final Song song) {
+        return songs.id(song, (section, entity) -> {
+            string(section, entity.getName());
+            section.putInteger(entity.getDuration());
+            string(section, entity.getAlbum());
+            if (entity.getTags() == null) {
+                section.putInt(0);
+            } else {
+                section.putInt(entity.getTags().size() + 1);
+                entity.getTags().forEach(tag -> string(section, tag));
+            }
+            string(section, entity.getLyrics());
+            string(section, entity.getGenre());
+            section.putInteger(entity.getReleaseYear());
+            string(section, entity.getArtist());
+            section.putInteger(entity.getLikes());
+            section.putDouble(entity.getIncome());
+        });
+    }
+
+    private int episode(final Episode episode) {
+        return episodes.id(episode, (section, entity) -> {
+            string(section, entity.getName());
+            section.putInteger(entity.getDuration());
+            string(section, entity.getDescription());
+            string(section, entity.getOwner());
+        });
+    }
+
+    private int podcast(final Podcast podcast) {
+        return podcasts.id(podcast, (section, entity) -> {
+            string(section, entity.getName());
+            string(section, entity.getOwner());
+            section.putInt(entity.getEpisodes().size());
+            entity.getEpisodes().forEach(episode -> section.putInt(episode(episode)));
+        });
+    }
+
+    private int album(final Album album) {
+        return albums.id(album, (section, entity) -> {
+            string(section, entity.getName());
+            string(section, entity.getDescription());
+            string(section, entity.getOwner());
+            section.putInt(entity.getSongs().size());
+            entity.getSongs().forEach(song -> section.putInt(song(song)));
+            section.putInteger(entity.getReleaseYear());
+            section.putInteger(entity.getFollowers());
+        });
+    }
+
+    private int playlist(final Playlist playlist) {
+        return playlists.id(playlist, (section, entity) -> {
+            string(section, entity.getName());
+            string(section, entity.getOwner());
+            section.putInt(entity.getTimestamp());
+            section.putInt(entity.getVisibility().ordinal());
+            section.putInteger(entity.getFollowers());
+            section.putInt(entity.getSongs().size());
+            entity.getSongs().forEach(song -> section.putInt(song(song)));
+        });
+    }
+
+    private int revenue(final ArtistRevenue revenue) {
+        return revenues.id(revenue, (section, entity) -> {
+            section.putDouble(entity.getMerchRevenue());
+            section.putDouble(entity.getSongRevenue());
+            section.putInt(entity.getProfitSongs().size());
+            entity.getProfitSongs().forEach((song, profit) -> {
+                string(section, song);
+                section.putDouble(profit);
+            });
+            string(section, entity.getMostProfitableSong());
+        });
+    }
+
+    private int account(final UserAbstract account) {
+        return accounts.id(account, (section, entity) -> {
+            string(section, entity.userType());
+            string(section, entity.getUsername());
+            section.putInt(entity.getAge());
+            string(section, entity.getCity());
+        });
+    }
+
+    /**
+     * Kinds of the entities a reference can point to.
+     */
+    enum Kind {
+        NONE, SONG, EPISODE, PODCAST, ALBUM, PLAYLIST, ACCOUNT;
+
+        private static Kind of(final Object entity) {
+            if (entity == null) {
+                return NONE;
+            } else if (entity instanceof Song) {
+                return SONG;
+            } else if (entity instanceof Episode) {
+                return EPISODE;
+            } else if (entity instanceof Podcast) {
+                return PODCAST;
+            } else if (entity instanceof Album) {
+                return ALBUM;
+            } else if (entity instanceof Playlist) {
+                return PLAYLIST;
+            } else if (entity instanceof UserAbstract) {
+                return ACCOUNT;
+            }
+
+            throw new IllegalArgumentException("Can't refer to " + entity.getClass());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Definition<T> {
+        void write(Section section, T entity);
+    }
+
+    private static final class Table<T> {
+        private final Map<T, Integer> ids = new IdentityHashMap<>();
+        private final List<T> entries = new ArrayList<>();
+        private final Section definitions = new Section();
+
+        private int id(final T entity, final Definition<T> definition) {
+            if (entity == null) {
+                return 0;
+            }
+
+            Integer id = ids.get(entity);
+            if (id == null) {
+                id = entries.size();
+                ids.put(entity, id);
+                entries.add(entity);
+                definition.write(definitions, entity);
+            }
+
+            return id + 1;
+        }
+    }
+
+    private static final class Section {
+        private static final int INITIAL_CAPACITY = 1 << 12;
+        private static final int PAYLOAD_BITS = 7;
+        private static final int PAYLOAD_MASK = 0x7f;
+        private static final int CONTINUATION = 0x80;
+        private static final int BYTE_BITS = 8;
+        private static final int BYTE_MASK = 0xff;
+
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int length;
+
+        private void putInt(final int value) {
+            int zigzag = (value << 1) ^ (value >> (Integer.SIZE - 1));
+            while ((zigzag & ~PAYLOAD_MASK) != 0) {
+                putByte((zigzag & PAYLOAD_MASK) | CONTINUATION);
+                zigzag >>>= PAYLOAD_BITS;
+            }
+            putByte(zigzag);
+        }
+
+        private void putInteger(final Integer value) {
+            putInt(value == null ? 0 : 1);
+            if (value != null) {
+                putInt(value);
+            }
+        }
+
+        private void putDouble(final double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = Long.SIZE - BYTE_BITS; shift >= 0; shift -= BYTE_BITS) {
+                putByte((int) (bits >>> shift) & BYTE_MASK);
+            }
+        }
+
+        private void putRaw(final int value) {
+            for (int shift = Integer.SIZE - BYTE_BITS; shift >= 0; shift -= BYTE_BITS) {
+                putByte((value >>> shift) & BYTE_MASK);
+            }
+        }
+
+        private void putBytes(final byte[] value) {
+            putInt(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void putByte(final int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package app.user;
 import java.util.ArrayList;
 import java.util.List;
 
+import app.Admin;
 import app.analytics.monetization.ArtistRevenue;
 import app.analytics.statistics.ArtistStats;
 import app.audio.Collections.Album;
@@ -12,6 +13,7 @@ import app.pages.ArtistPage;
 import app.pages.pageContent.Event;
 import app.pages.pageContent.Merchandise;
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * The type Artist.
@@ -22,21 +24,24 @@ public final class Artist extends ContentCreator {
     private ArrayList<Merchandise> merch;
     private ArrayList<Event> events;
     private ArtistStats stats;
+    @Setter
     private ArtistRevenue revenue;
 
     /**
      * Instantiates a new Artist.
      *
+     * @param admin    the Admin the account belongs to
      * @param username the username
      * @param age      the age
      * @param city     the city
      */
-    public Artist(final String username, final int age, final String city) {
-        super(username, age, city);
+    public Artist(final Admin admin, final String username, final int age,
+                  final String city) {
+        super(admin, username, age, city);
         albums = new ArrayList<>();
         merch = new ArrayList<>();
         events = new ArrayList<>();
-        stats = new ArtistStats();
+        stats = admin.getStatistics().getArtistStats(username);
         revenue = new ArtistRevenue();
 
         super.setPage(new ArtistPage(this));
@@ -1,11 +1,13 @@
 package app.user;
 
+import app.Admin;
+import app.notifications.NotificationFeed;
 import app.pages.Page;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * The type Content creator.
@@ -14,16 +16,19 @@ import java.util.List;
 public abstract class ContentCreator extends UserAbstract {
     private String description;
     private Page page;
-    private List<String> subscribers = new ArrayList<>();
+    private Set<String> subscribers = new LinkedHashSet<>();
+    private final NotificationFeed feed = new NotificationFeed();
 
     /**
      * Instantiates a new Content creator.
      *
+     * @param admin    the Admin the account belongs to
      * @param username the username
      * @param age      the age
      * @param city     the city
      */
-    public ContentCreator(final String username, final int age, final String city) {
-        super(username, age, city);
+    public ContentCreator(final Admin admin, final String username, final int age,
+                          final String city) {
+        super(admin, username, age, city);
     }
 }
@@ -1,5 +1,6 @@
 package app.user;
 
+import app.Admin;
 import app.analytics.statistics.HostStats;
 import app.audio.Collections.Podcast;
 import app.pages.HostPage;
@@ -21,15 +22,17 @@ public final class Host extends ContentCreator {
     /**
      * Instantiates a new Host.
      *
+     * @param admin    the Admin the account belongs to
      * @param username the username
      * @param age      the age
      * @param city     the city
      */
-    public Host(final String username, final int age, final String city) {
-        super(username, age, city);
+    public Host(final Admin admin, final String username, final int age,
+                final String city) {
+        super(admin, username, age, city);
         podcasts = new ArrayList<>();
         announcements = new ArrayList<>();
-        stats = new HostStats();
+        stats = admin.getStatistics().getHostStats(username);
 
         super.setPage(new HostPage(this));
     }
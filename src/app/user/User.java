@@ -1,6 +1,7 @@
 package app.user;
 
 import app.Admin;
+import app.analytics.Leaderboards;
 import app.analytics.statistics.UserStats;
 import app.audio.Collections.AudioCollection;
 import app.audio.Collections.Playlist;
@@ -8,9 +9,10 @@ import app.audio.Collections.output.PlaylistOutput;
 import app.audio.Files.AudioFile;
 import app.audio.Files.Song;
 import app.audio.LibraryEntry;
-import app.notifications.Notification;
+import app.notifications.Inbox;
 import app.pages.HomePage;
 import app.pages.Page;
+import app.player.NowPlayingIndex;
 import app.player.Player;
 import app.player.PlayerStats;
 import app.recommendations.RecommendationStrategy;
@@ -18,12 +20,14 @@ import app.searchBar.SearchStrategyFactory;
 import app.searchBar.filters.Filters;
 import app.searchBar.strategies.SearchStrategy;
 import app.utils.Enums;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -32,42 +36,53 @@ import java.util.List;
 @Getter @Setter
 public final class User extends UserAbstract {
     private ArrayList<Playlist> playlists;
-    private ArrayList<Song> likedSongs;
-    private ArrayList<Playlist> followedPlaylists;
+    @Setter(AccessLevel.NONE)
+    private LinkedHashSet<Song> likedSongs;
+    @Setter(AccessLevel.NONE)
+    private LinkedHashSet<Playlist> followedPlaylists;
     private final Player player;
     private boolean online;
     private SearchStrategy searchBar;
     private boolean lastSearched;
+    @Setter(AccessLevel.NONE)
     private Deque<Page> backHistory = new ArrayDeque<>();
     private Deque<Page> forwardHistory = new ArrayDeque<>();
-    private List<Notification> notifications = new ArrayList<>();
+    private final Inbox inbox = new Inbox();
     private UserStats userStats = new UserStats();
     private List<String> merchBought = new ArrayList<>();
     private ArrayList<Song> songRecommendations;
     private ArrayList<Playlist> playlistRecommendations;
     private RecommendationStrategy recommendation;
     private boolean premium = false;
+    @Getter(AccessLevel.NONE)
+    private final NowPlayingIndex nowPlaying;
 
     /**
      * Instantiates a new User.
      *
+     * @param admin    the Admin the account belongs to
      * @param username the username
      * @param age      the age
      * @param city     the city
      */
-    public User(final String username, final int age, final String city) {
-        super(username, age, city);
+    public User(final Admin admin, final String username, final int age,
+                final String city) {
+        super(admin, username, age, city);
         playlists = new ArrayList<>();
-        likedSongs = new ArrayList<>();
-        followedPlaylists = new ArrayList<>();
+        likedSongs = new LinkedHashSet<>();
+        followedPlaylists = new LinkedHashSet<>();
         songRecommendations = new ArrayList<>();
         playlistRecommendations = new ArrayList<>();
-        player = new Player();
+        nowPlaying = admin.getNowPlaying();
+        player = new Player(nowPlaying, admin.getScheduler(), admin.getCatalog(),
+                            admin.getPendingListens(),
+                            (audioFile, count) -> admin.getStatistics()
+                                    .record(this, audioFile, count));
         searchBar = null;
         lastSearched = false;
         online = true;
-        backHistory.push(new HomePage(this));
         recommendation = null;
+        setCurrentPage(new HomePage(this));
     }
 
     @Override
@@ -87,7 +102,7 @@ public final class User extends UserAbstract {
             searchBar.clearSelection();
         }
 
-        SearchStrategyFactory searchStrategyFactory = SearchStrategyFactory.getInstance();
+        SearchStrategyFactory searchStrategyFactory = getAdmin().getSearchStrategies();
         searchBar = searchStrategyFactory.getSearchStrategy(type, getUsername());
 
         player.stop();
@@ -136,7 +151,7 @@ public final class User extends UserAbstract {
                 return "The selected ID is too high.";
             }
 
-            backHistory.push(selected.getPage());
+            setCurrentPage(selected.getPage());
             return "Successfully selected %s's page.".formatted(selected.getUsername());
         } else {
             LibraryEntry selected = (LibraryEntry) searchBar.select(itemNumber);
@@ -168,8 +183,8 @@ public final class User extends UserAbstract {
             return "You can't load an empty audio collection!";
         } else if (searchBar.getLastSearchType().equals("song")) {
             String artistName = ((Song) searchBar.getLastSelected()).getArtist();
-            Artist artist = Admin.getInstance().getArtist(artistName);
-            Admin.getInstance().getUserInteractions().putIfAbsent(artistName, artist.getRevenue());
+            Artist artist = getAdmin().getArtist(artistName);
+            getAdmin().getUserInteractions().putIfAbsent(artistName, artist.getRevenue());
         }
 
         player.setSource((LibraryEntry) searchBar.getLastSelected(),
@@ -339,15 +354,19 @@ public final class User extends UserAbstract {
 
         Song song = (Song) player.getCurrentAudioFile();
 
-        if (likedSongs.contains(song)) {
-            likedSongs.remove(song);
+        Leaderboards leaderboards = getAdmin().getLeaderboards();
+        if (likedSongs.remove(song)) {
+            getAdmin().getGenreProfiles().unlike(this, song);
             song.dislike();
+            leaderboards.changeLikes(song, -1);
 
             return "Unlike registered successfully.";
         }
 
         likedSongs.add(song);
         song.like();
+        leaderboards.changeLikes(song, 1);
+        getAdmin().getGenreProfiles().like(this, song);
         return "Like registered successfully.";
     }
 
@@ -411,7 +430,9 @@ public final class User extends UserAbstract {
             return "A playlist with the same name already exists.";
         }
 
-        playlists.add(new Playlist(name, getUsername(), timestamp));
+        Playlist playlist = new Playlist(name, getUsername(), timestamp);
+        playlists.add(playlist);
+        getAdmin().addPlaylist(playlist);
 
         return "Playlist created successfully.";
     }
@@ -441,12 +462,15 @@ public final class User extends UserAbstract {
 
         Playlist playlist = playlists.get(id - 1);
 
-        if (playlist.containsSong((Song) player.getCurrentAudioFile())) {
-            playlist.removeSong((Song) player.getCurrentAudioFile());
+        Song song = (Song) player.getCurrentAudioFile();
+        if (playlist.containsSong(song)) {
+            playlist.removeSong(song);
+            getAdmin().getGenreProfiles().removeFromPlaylist(playlist, song);
             return "Successfully removed from playlist.";
         }
 
-        playlist.addSong((Song) player.getCurrentAudioFile());
+        playlist.addSong(song);
+        getAdmin().getGenreProfiles().addToPlaylist(playlist, song);
         return "Successfully added to playlist.";
     }
 
@@ -516,15 +540,18 @@ public final class User extends UserAbstract {
             return "You cannot follow or unfollow your own playlist.";
         }
 
-        if (followedPlaylists.contains(playlist)) {
-            followedPlaylists.remove(playlist);
+        if (followedPlaylists.remove(playlist)) {
             playlist.decreaseFollowers();
+            getAdmin().getLeaderboards().changeFollowers(playlist, -1);
+            getAdmin().getGenreProfiles().unfollow(this, playlist);
 
             return "Playlist unfollowed successfully.";
         }
 
         followedPlaylists.add(playlist);
         playlist.increaseFollowers();
+        getAdmin().getLeaderboards().changeFollowers(playlist, 1);
+        getAdmin().getGenreProfiles().follow(this, playlist);
 
 
         return "Playlist followed successfully.";
@@ -553,31 +580,27 @@ public final class User extends UserAbstract {
         return results;
     }
 
+    /**
+     * Gets the liked songs with the most likes, the ones liked first coming first among
+     * songs with as many likes.
+     *
+     * @param count the number of songs
+     * @return at most that many songs, most liked first
+     */
+    public List<Song> getTopLikedSongs(final int count) {
+        return getAdmin().getLeaderboards().topLikedSongs(this, count);
+    }
+
     /**
      * Gets preferred genre.
      *
      * @return the preferred genre
      */
     public String getPreferredGenre() {
-        String[] genres = {"pop", "rock", "rap"};
-        int[] counts = new int[genres.length];
-        int mostLikedIndex = -1;
-        int mostLikedCount = 0;
-
-        for (Song song : likedSongs) {
-            for (int i = 0; i < genres.length; i++) {
-                if (song.getGenre().equals(genres[i])) {
-                    counts[i]++;
-                    if (counts[i] > mostLikedCount) {
-                        mostLikedCount = counts[i];
-                        mostLikedIndex = i;
-                    }
-                    break;
-                }
-            }
-        }
+        List<String> genres = List.of("pop", "rock", "rap");
+        String mostLiked = getAdmin().getGenreProfiles().mostLikedGenre(this, genres);
 
-        String preferredGenre = mostLikedIndex != -1 ? genres[mostLikedIndex] : "unknown";
+        String preferredGenre = mostLiked != null ? mostLiked : "unknown";
         return "This user's preferred genre is %s.".formatted(preferredGenre);
     }
 
@@ -586,19 +609,7 @@ public final class User extends UserAbstract {
      */
     public void switchStatus() {
         online = !online;
-    }
-
-    /**
-     * Simulate time.
-     *
-     * @param time the time
-     */
-    public void simulateTime(final int time) {
-        if (!online) {
-            return;
-        }
-
-        player.simulatePlayer(time);
+        player.setOnline(online);
     }
 
     /**
@@ -614,7 +625,9 @@ public final class User extends UserAbstract {
      * Sets current page.
      */
     public void setCurrentPage(final Page page) {
+        Page previous = getCurrentPage();
         backHistory.push(page);
+        nowPlaying.movePage(this, previous, page);
     }
 
     /**
@@ -623,7 +636,9 @@ public final class User extends UserAbstract {
      */
     public String previousPage() {
         if (backHistory.size() > 1) {
-            forwardHistory.push(backHistory.pop());
+            Page previous = backHistory.pop();
+            forwardHistory.push(previous);
+            nowPlaying.movePage(this, previous, getCurrentPage());
             return "The user " + getUsername() + " has navigated successfully to"
                     + " the previous page.";
         } else {
@@ -637,7 +652,7 @@ public final class User extends UserAbstract {
      */
     public String nextPage() {
         if (!forwardHistory.isEmpty()) {
-            backHistory.push(forwardHistory.pop());
+            setCurrentPage(forwardHistory.pop());
             return "The user " + getUsername() + " has navigated successfully to the next page.";
         } else {
             return "There are no pages left to go forward.";
@@ -1,5 +1,7 @@
 package app.user;
 
+import app.Admin;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,18 +10,27 @@ import lombok.Setter;
  */
 @Getter @Setter
 public abstract class UserAbstract {
+    private final Admin admin;
     private String username;
     private int age;
     private String city;
+    /**
+     * Dense id given by the Admin when the account signs up, in sign-up order.
+     */
+    @Setter(AccessLevel.NONE)
+    private int id = -1;
 
     /**
      * Instantiates a new User abstract.
      *
+     * @param admin    the Admin the account belongs to
      * @param username the username
      * @param age      the age
      * @param city     the city
      */
-    public UserAbstract(final String username, final int age, final String city) {
+    public UserAbstract(final Admin admin, final String username, final int age,
+                        final String city) {
+        this.admin = admin;
         this.username = username;
         this.age = age;
         this.city = city;
@@ -31,4 +42,13 @@ public abstract class UserAbstract {
      * @return the string
      */
     public abstract String userType();
+
+    /**
+     * Gives the account its id. Only the Admin the account signs up to calls this.
+     *
+     * @param id the id
+     */
+    public void assignId(final int id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,118 @@
+package app.user;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Username-keyed registry of every account on the platform. It keeps the insertion
+ * ordered lists used for output next to hash indexes, so lookups by username are
+ * constant time and never allocate.
+ */
+public final class UserRegistry {
+    @Getter
+    private final List<User> users = new ArrayList<>();
+    @Getter
+    private final List<Artist> artists = new ArrayList<>();
+    @Getter
+    private final List<Host> hosts = new ArrayList<>();
+    private final Map<String, UserAbstract> accounts = new HashMap<>();
+    private final Map<String, User> userIndex = new HashMap<>();
+    private final Map<String, Artist> artistIndex = new HashMap<>();
+    private final Map<String, Host> hostIndex = new HashMap<>();
+
+    /**
+     * Registers a new account, in the list and in the index matching its type.
+     *
+     * @param account the account
+     */
+    public void add(final UserAbstract account) {
+        String username = account.getUsername();
+        accounts.putIfAbsent(username, account);
+
+        switch (account.userType()) {
+            case "user" -> {
+                users.add((User) account);
+                userIndex.putIfAbsent(username, (User) account);
+            }
+            case "artist" -> {
+                artists.add((Artist) account);
+                artistIndex.putIfAbsent(username, (Artist) account);
+            }
+            case "host" -> {
+                hosts.add((Host) account);
+                hostIndex.putIfAbsent(username, (Host) account);
+            }
+            default -> throw new IllegalArgumentException("Invalid user type!");
+        }
+    }
+
+    /**
+     * Removes an account from the registry.
+     *
+     * @param account the account
+     */
+    public void remove(final UserAbstract account) {
+        String username = account.getUsername();
+        accounts.remove(username, account);
+
+        switch (account.userType()) {
+            case "user" -> {
+                users.remove(account);
+                userIndex.remove(username, account);
+            }
+            case "artist" -> {
+                artists.remove(account);
+                artistIndex.remove(username, account);
+            }
+            case "host" -> {
+                hosts.remove(account);
+                hostIndex.remove(username, account);
+            }
+            default -> throw new IllegalArgumentException("Invalid user type!");
+        }
+    }
+
+    /**
+     * Gets the account with the given username, whatever its type.
+     *
+     * @param username the username
+     * @return the account or null
+     */
+    public UserAbstract get(final String username) {
+        return accounts.get(username);
+    }
+
+    /**
+     * Gets a normal user.
+     *
+     * @param username the username
+     * @return the user or null
+     */
+    public User getUser(final String username) {
+        return userIndex.get(username);
+    }
+
+    /**
+     * Gets an artist.
+     *
+     * @param username the username
+     * @return the artist or null
+     */
+    public Artist getArtist(final String username) {
+        return artistIndex.get(username);
+    }
+
+    /**
+     * Gets a host.
+     *
+     * @param username the username
+     * @return the host or null
+     */
+    public Host getHost(final String username) {
+        return hostIndex.get(username);
+    }
+}
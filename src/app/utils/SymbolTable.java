@@ -0,0 +1,54 @@
+package app.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every distinct string a small int id, in the order they are first seen, and keeps
+ * one instance of each, so values repeated across the catalog (genres, artists, albums,
+ * tags) are stored once and can index arrays. Ids are never reused. A table belongs to a
+ * single catalog and is not safe for concurrent use.
+ */
+public final class SymbolTable {
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Gets the id of a string, assigning a new one the first time the string is seen.
+     *
+     * @param name the string
+     * @return the id
+     */
+    public int id(final String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Gets the instance kept for a string.
+     *
+     * @param name the string, may be null
+     * @return the instance equal to it, or null
+     */
+    public String intern(final String name) {
+        return name == null ? null : name(id(name));
+    }
+
+    /**
+     * Gets the string with the given id.
+     *
+     * @param id the id
+     * @return the string
+     */
+    public String name(final int id) {
+        return names.get(id);
+    }
+}
@@ -1,14 +1,17 @@
 package main;
 
 import app.Admin;
+import app.AdminSnapshot;
 import app.analytics.Analytics;
+import app.audio.Library;
 import app.commandHandle.CommandExecution;
+import app.commandHandle.CommandLog;
+import app.commandHandle.CommandReader;
+import app.commandHandle.CommandResult;
+import app.commandHandle.OutputBuilder;
+import app.commandHandle.ResultWriter;
 import checker.Checker;
 import checker.CheckerConstants;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import fileio.input.CommandInput;
 import fileio.input.LibraryInput;
 import java.io.File;
@@ -16,14 +19,23 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Objects;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implentation.
+ * When the "commandLog.directory" system property is set, every input file is run through
+ * a command log kept in a directory of that name under it, so a run cut short by a crash
+ * goes on from where it stopped the next time it is started. The log keeps the results
+ * too, and the output file is written from them once the run is over, after which the
+ * log is deleted. When the "snapshot.directory" system property is set, the state every
+ * input file leaves behind, before the end of the program is reported, is saved there to
+ * a snapshot named after the file.
  */
 public final class Main {
+    public static final String COMMAND_LOG_PROPERTY = "commandLog.directory";
+    public static final String SNAPSHOT_PROPERTY = "snapshot.directory";
     static final String LIBRARY_PATH = CheckerConstants.TESTS_PATH + "library/library.json";
+    private static Library library;
 
     /**
      * for coding style
@@ -73,28 +85,109 @@ public final class Main {
      */
     public static void action(final String filePathInput,
                               final String filePathOutput) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        LibraryInput library = objectMapper.readValue(new File(LIBRARY_PATH), LibraryInput.class);
+        Library entities = getLibrary();
+        String logDirectory = System.getProperty(COMMAND_LOG_PROPERTY);
+        if (logDirectory == null) {
+            Admin admin = newAdmin(entities);
+            CommandExecution allCommands = new CommandExecution(admin);
+            try (CommandReader commandsInput = openInput(filePathInput);
+                 ResultWriter outputs = new ResultWriter(new File(filePathOutput))) {
+                while (commandsInput.hasNext()) {
+                    CommandInput command = commandsInput.next();
+                    admin.updateTimestamp(command.getTimestamp());
+                    outputs.write(allCommands.executeCommand(command));
+                }
+
+                saveSnapshot(filePathInput, admin);
+                outputs.write(Analytics.endProgram(admin));
+            }
+            return;
+        }
 
-        ArrayNode outputs = objectMapper.createArrayNode();
+        Path directory = Paths.get(logDirectory, filePathInput);
+        try (CommandLog log = CommandLog.open(directory, () -> newAdmin(entities))) {
+            runLogged(filePathInput, log);
+            try (ResultWriter outputs = new ResultWriter(new File(filePathOutput))) {
+                log.writeResults(outputs);
+                outputs.write(Analytics.endProgram(log.getAdmin()));
+            }
+        }
+        CommandLog.delete(directory);
+    }
 
-        ArrayList<CommandInput> commandsInput = objectMapper.readValue(
-                new File(CheckerConstants.TESTS_PATH + filePathInput),
-                new TypeReference<>() { });
+    /**
+     * Runs the commands of an input file through a command log, which keeps their results.
+     * The first commands that change the state may already be held by the Admin recovered
+     * from the log; they are skipped, with the commands between them. The commands whose
+     * results the log already keeps are run again only if the Admin doesn't hold them yet,
+     * and their results are not kept a second time.
+     */
+    private static void runLogged(final String filePathInput, final CommandLog log)
+            throws IOException {
+        Admin admin = log.getAdmin();
+        CommandExecution allCommands = new CommandExecution(log);
+        try (CommandReader commandsInput = openInput(filePathInput)) {
+            long position = 0;
+            long skipped = 0;
+            while (commandsInput.hasNext()) {
+                CommandInput command = commandsInput.next();
+                boolean stored = position++ < log.getStoredResults();
+                if (skipped < log.getRecovered()) {
+                    if (allCommands.isMutating(command)) {
+                        skipped++;
+                    }
+                    if (!stored) {
+                        if (skipped < log.getRecovered() || !allCommands.isMutating(command)) {
+                            throw new IOException("The result of input command " + position
+                                    + " is missing from the command log of " + filePathInput);
+                        }
+                        log.appendResult(log.getLastRecoveredResult());
+                    }
+                    continue;
+                }
+
+                admin.updateTimestamp(command.getTimestamp());
+                CommandResult result = allCommands.executeCommand(command);
+                if (!stored) {
+                    log.appendResult(result);
+                }
+            }
+        }
 
-        Admin.getInstance().setEntities(library);
-        CommandExecution allCommands = new CommandExecution();
+        saveSnapshot(filePathInput, admin);
+    }
+
+    private static CommandReader openInput(final String filePathInput) throws IOException {
+        return new CommandReader(new File(CheckerConstants.TESTS_PATH + filePathInput));
+    }
 
-        for (CommandInput command : commandsInput) {
-            Admin.getInstance().updateTimestamp(command.getTimestamp());
-            outputs.add(allCommands.executeCommand(command));
+    private static void saveSnapshot(final String filePathInput, final Admin admin)
+            throws IOException {
+        String snapshotDirectory = System.getProperty(SNAPSHOT_PROPERTY);
+        if (snapshotDirectory != null) {
+            Files.createDirectories(Paths.get(snapshotDirectory));
+            AdminSnapshot.save(admin, Paths.get(snapshotDirectory, filePathInput + ".snap"));
         }
+    }
 
-        outputs.add(Analytics.endProgram(Admin.getInstance().getUserInteractions()));
+    private static Admin newAdmin(final Library entities) {
+        Admin admin = new Admin();
+        admin.setEntities(entities);
+        return admin;
+    }
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePathOutput), outputs);
+    /**
+     * Parses the library the first time it is needed, every input file starts from it.
+     * Input files may be run from several threads, so the library is parsed only once.
+     * @return the library
+     * @throws IOException in case of exceptions to reading
+     */
+    private static synchronized Library getLibrary() throws IOException {
+        if (library == null) {
+            library = new Library(OutputBuilder.getMapper().readValue(new File(LIBRARY_PATH),
+                    LibraryInput.class));
+        }
 
-        Admin.getInstance().reset();
+        return library;
     }
 }
@@ -0,0 +1,54 @@
+package main;
+
+import checker.CheckerConstants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Use this to run several input files at the same time. Every input file is run against
+ * its own Admin, so the runs share nothing but the parsed library. The number of files run
+ * at once is the number of processors, unless the "replay.parallelism" system property
+ * says otherwise.
+ */
+public final class ReplayRunner {
+    public static final String PARALLELISM_PROPERTY = "replay.parallelism";
+
+    /**
+     * for coding style
+     */
+    private ReplayRunner() {
+    }
+
+    /**
+     * @param args the names of the input files, from the tests directory
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        Files.createDirectories(Paths.get(CheckerConstants.RESULT_PATH));
+
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> Arrays.stream(args).parallel().forEach(ReplayRunner::replay))
+                    .join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void replay(final String fileName) {
+        try {
+            Main.action(fileName, CheckerConstants.OUT_PATH + fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}